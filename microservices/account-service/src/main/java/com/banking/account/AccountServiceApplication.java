@@ -2,10 +2,21 @@ package com.banking.account;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
 import org.springframework.cloud.client.discovery.EnableDiscoveryClient;
+import org.springframework.cloud.openfeign.EnableFeignClients;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
-@SpringBootApplication
+// com.banking.common.config is left out: its SecurityConfig needs spring-security.
+@SpringBootApplication(scanBasePackages = {"com.banking.account", "com.banking.common.audit", "com.banking.common.id",
+        "com.banking.common.idempotency", "com.banking.common.outbox", "com.banking.common.sharding",
+        "com.banking.common.web"})
+@EntityScan(basePackages = {"com.banking.account", "com.banking.common"})
+@EnableJpaRepositories(basePackages = {"com.banking.account", "com.banking.common"})
 @EnableDiscoveryClient
+@EnableFeignClients(basePackages = {"com.banking.account", "com.banking.common"})
+@EnableScheduling
 public class AccountServiceApplication {
     public static void main(String[] args) {
         SpringApplication.run(AccountServiceApplication.class, args);
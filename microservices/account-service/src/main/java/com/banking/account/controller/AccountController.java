@@ -2,14 +2,19 @@ package com.banking.account.controller;
 
 import com.banking.account.dto.AccountRequest;
 import com.banking.account.dto.AccountResponse;
+import com.banking.account.dto.AccountsResponse;
+import com.banking.account.dto.BatchTransferRequest;
+import com.banking.account.dto.BatchTransferResponse;
+import com.banking.account.dto.TransferRequest;
 import com.banking.account.service.AccountService;
+import com.banking.common.money.Money;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
-import java.math.BigDecimal;
+import java.util.List;
 
 @RestController
 @RequestMapping("/api/accounts")
@@ -24,6 +29,14 @@ public class AccountController {
         return ResponseEntity.status(status).body(response);
     }
 
+    @GetMapping(params = "numbers")
+    public ResponseEntity<AccountsResponse> getAccounts(@RequestParam List<String> numbers) {
+        AccountsResponse response = accountService.getAccountsByNumbers(numbers);
+        HttpStatus status = "200".equals(response.getResponseCode()) ? HttpStatus.OK : 
+                           "400".equals(response.getResponseCode()) ? HttpStatus.BAD_REQUEST : HttpStatus.INTERNAL_SERVER_ERROR;
+        return ResponseEntity.status(status).body(response);
+    }
+
     @GetMapping("/{accountNumber}")
     public ResponseEntity<AccountResponse> getAccount(@PathVariable String accountNumber) {
         AccountResponse response = accountService.getAccountByNumber(accountNumber);
@@ -35,12 +48,42 @@ public class AccountController {
     @PutMapping("/{accountNumber}/balance")
     public ResponseEntity<AccountResponse> updateBalance(
             @PathVariable String accountNumber, 
-            @RequestParam BigDecimal amount,
-            @RequestParam String operation) {
-        AccountResponse response = accountService.updateBalance(accountNumber, amount, operation);
+            @RequestParam Money amount,
+            @RequestParam String operation,
+            @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey) {
+        AccountResponse response = accountService.updateBalance(accountNumber, amount, operation, idempotencyKey);
         HttpStatus status = "200".equals(response.getResponseCode()) ? HttpStatus.OK : 
                            "404".equals(response.getResponseCode()) ? HttpStatus.NOT_FOUND : 
                            "400".equals(response.getResponseCode()) ? HttpStatus.BAD_REQUEST : 
+                           "409".equals(response.getResponseCode()) ? HttpStatus.CONFLICT : 
+                           "422".equals(response.getResponseCode()) ? HttpStatus.UNPROCESSABLE_ENTITY : 
+                           HttpStatus.INTERNAL_SERVER_ERROR;
+        return ResponseEntity.status(status).body(response);
+    }
+
+    @PostMapping("/transfer")
+    public ResponseEntity<AccountResponse> transfer(
+            @Valid @RequestBody TransferRequest request,
+            @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey) {
+        AccountResponse response = accountService.transfer(request, idempotencyKey);
+        HttpStatus status = "200".equals(response.getResponseCode()) ? HttpStatus.OK : 
+                           "404".equals(response.getResponseCode()) ? HttpStatus.NOT_FOUND : 
+                           "400".equals(response.getResponseCode()) ? HttpStatus.BAD_REQUEST : 
+                           "409".equals(response.getResponseCode()) ? HttpStatus.CONFLICT : 
+                           "422".equals(response.getResponseCode()) ? HttpStatus.UNPROCESSABLE_ENTITY : 
+                           HttpStatus.INTERNAL_SERVER_ERROR;
+        return ResponseEntity.status(status).body(response);
+    }
+
+    @PostMapping("/transfer/batch")
+    public ResponseEntity<BatchTransferResponse> transferBatch(
+            @Valid @RequestBody BatchTransferRequest request,
+            @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey) {
+        BatchTransferResponse response = accountService.transferBatch(request.getTransfers(), idempotencyKey);
+        HttpStatus status = "200".equals(response.getResponseCode()) ? HttpStatus.OK : 
+                           "400".equals(response.getResponseCode()) ? HttpStatus.BAD_REQUEST : 
+                           "409".equals(response.getResponseCode()) ? HttpStatus.CONFLICT : 
+                           "422".equals(response.getResponseCode()) ? HttpStatus.UNPROCESSABLE_ENTITY : 
                            HttpStatus.INTERNAL_SERVER_ERROR;
         return ResponseEntity.status(status).body(response);
     }
@@ -0,0 +1,24 @@
+package com.banking.account.controller;
+
+import com.banking.account.dto.AccountFilterUpdate;
+import com.banking.account.service.AccountFilter;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+/**
+ * Receives accounts created on other instances. Not routed by the gateway; adding an entry can
+ * only make the filter let more lookups through to the database.
+ */
+@RestController
+@RequestMapping("/internal/accounts/filter")
+@RequiredArgsConstructor
+public class AccountFilterController {
+    private final AccountFilter accountFilter;
+
+    @PostMapping
+    public ResponseEntity<Void> add(@RequestBody AccountFilterUpdate update) {
+        accountFilter.add(update.getAccountNumber(), update.getEmail());
+        return ResponseEntity.noContent().build();
+    }
+}
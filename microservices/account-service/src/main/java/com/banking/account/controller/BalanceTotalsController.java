@@ -0,0 +1,28 @@
+package com.banking.account.controller;
+
+import com.banking.account.dto.BalanceTotalsResponse;
+import com.banking.account.service.AccountService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+/**
+ * Pages through every account's balance and net deposits for transaction-service's
+ * reconciliation. Not routed by the gateway.
+ */
+@RestController
+@RequestMapping("/internal/accounts/totals")
+@RequiredArgsConstructor
+public class BalanceTotalsController {
+    private final AccountService accountService;
+
+    @GetMapping
+    public ResponseEntity<BalanceTotalsResponse> getTotals(@RequestParam(required = false) String after,
+                                                           @RequestParam(defaultValue = "500") int limit) {
+        BalanceTotalsResponse response = accountService.getBalanceTotals(after, limit);
+        HttpStatus status = "200".equals(response.getResponseCode()) ? HttpStatus.OK :
+                           "400".equals(response.getResponseCode()) ? HttpStatus.BAD_REQUEST : HttpStatus.INTERNAL_SERVER_ERROR;
+        return ResponseEntity.status(status).body(response);
+    }
+}
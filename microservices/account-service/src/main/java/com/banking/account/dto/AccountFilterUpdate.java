@@ -0,0 +1,13 @@
+package com.banking.account.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AccountFilterUpdate {
+    private String accountNumber;
+    private String email;
+}
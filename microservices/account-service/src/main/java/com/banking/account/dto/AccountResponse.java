@@ -1,12 +1,16 @@
 package com.banking.account.dto;
 
+import com.banking.common.money.Money;
+import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
+import lombok.NoArgsConstructor;
 
-import java.math.BigDecimal;
 
 @Data
 @Builder
+@NoArgsConstructor
+@AllArgsConstructor
 public class AccountResponse {
     private String responseCode;
     private String responseMessage;
@@ -14,9 +18,11 @@ public class AccountResponse {
 
     @Data
     @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
     public static class AccountInfo {
         private String accountName;
         private String accountNumber;
-        private BigDecimal accountBalance;
+        private Money accountBalance;
     }
 }
\ No newline at end of file
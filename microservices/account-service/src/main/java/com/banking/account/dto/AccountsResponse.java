@@ -0,0 +1,18 @@
+package com.banking.account.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class AccountsResponse {
+    private String responseCode;
+    private String responseMessage;
+    private List<AccountResponse.AccountInfo> accounts;
+}
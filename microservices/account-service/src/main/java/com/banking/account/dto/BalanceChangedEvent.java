@@ -0,0 +1,22 @@
+package com.banking.account.dto;
+
+import com.banking.common.money.Money;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BalanceChangedEvent {
+    public static final String TYPE = "BalanceChanged";
+    public static final String AGGREGATE_TYPE = "ACCOUNT";
+
+    private String accountNumber;
+    private String email;
+    private String change;
+    private Money amount;
+    private Money balance;
+    private String counterpartyAccountNumber;
+}
@@ -0,0 +1,32 @@
+package com.banking.account.dto;
+
+import com.banking.common.money.Money;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BalanceTotalsResponse {
+    private String responseCode;
+    private String responseMessage;
+    private List<Totals> accounts;
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Totals {
+        private String accountNumber;
+        private Money accountBalance;
+        private Money netDeposits;
+        // Transactions up to this time are already part of netDeposits; null for accounts opened since.
+        private LocalDateTime openingBalanceAt;
+    }
+}
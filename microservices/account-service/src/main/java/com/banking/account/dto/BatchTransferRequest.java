@@ -0,0 +1,13 @@
+package com.banking.account.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+public class BatchTransferRequest {
+    @NotEmpty(message = "At least one transfer is required")
+    private List<@Valid TransferRequest> transfers;
+}
@@ -0,0 +1,21 @@
+package com.banking.account.dto;
+
+import com.banking.common.money.MinAmount;
+import com.banking.common.money.Money;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import lombok.Data;
+
+
+@Data
+public class TransferRequest {
+    @NotBlank(message = "Source account number is required")
+    private String sourceAccountNumber;
+
+    @NotBlank(message = "Destination account number is required")
+    private String destinationAccountNumber;
+
+    @NotNull(message = "Amount is required")
+    @MinAmount(value = "0.01", message = "Amount must be greater than 0")
+    private Money amount;
+}
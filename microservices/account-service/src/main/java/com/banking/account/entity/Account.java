@@ -6,7 +6,6 @@ import lombok.*;
 import org.hibernate.annotations.CreationTimestamp;
 import org.hibernate.annotations.UpdateTimestamp;
 
-import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
 @Entity
@@ -41,10 +40,6 @@ public class Account {
     @Column(unique = true, nullable = false)
     private String accountNumber;
 
-    @DecimalMin(value = "0.0", inclusive = true, message = "Account balance cannot be negative")
-    @Builder.Default
-    private BigDecimal accountBalance = BigDecimal.ZERO;
-
     @Email(message = "Invalid email format")
     @NotBlank(message = "Email is required")
     @Column(unique = true)
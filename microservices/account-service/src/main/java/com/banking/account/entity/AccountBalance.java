@@ -0,0 +1,39 @@
+package com.banking.account.entity;
+
+import com.banking.common.money.Money;
+import com.banking.common.money.MoneyConverter;
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * The mutable balance of an account, kept apart from the holder details in {@code accounts}
+ * so balance writes touch a narrow row.
+ */
+@Entity
+@Table(name = "account_balances")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class AccountBalance {
+    @Id
+    private String accountNumber;
+
+    @Column(nullable = false)
+    @Convert(converter = MoneyConverter.class)
+    private Money balance;
+
+    // Deposits minus withdrawals made through the balance endpoint; transfers leave it unchanged.
+    @Column(nullable = false)
+    @Convert(converter = MoneyConverter.class)
+    private Money netDeposits;
+
+    // Set on accounts that predate net deposit tracking: their balance at this time was taken as
+    // their net deposits, so only later transactions count towards reconciling them.
+    private LocalDateTime openingBalanceAt;
+
+    @Column(nullable = false)
+    private LocalDateTime modifiedAt;
+}
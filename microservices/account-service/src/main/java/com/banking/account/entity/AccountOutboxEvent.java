@@ -0,0 +1,14 @@
+package com.banking.account.entity;
+
+import com.banking.common.outbox.OutboxEvent;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+
+@Entity
+@Table(name = AccountOutboxEvent.TABLE, indexes = {
+        @Index(name = "idx_account_outbox_events_published", columnList = "published_at, id")
+})
+public class AccountOutboxEvent extends OutboxEvent {
+    public static final String TABLE = "account_outbox_events";
+}
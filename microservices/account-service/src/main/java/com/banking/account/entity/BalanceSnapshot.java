@@ -0,0 +1,30 @@
+package com.banking.account.entity;
+
+import com.banking.common.money.Money;
+import com.banking.common.money.MoneyConverter;
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "account_balance_snapshots")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BalanceSnapshot {
+    @Id
+    private String accountNumber;
+
+    @Column(nullable = false)
+    @Convert(converter = MoneyConverter.class)
+    private Money balance;
+
+    // Postings with an id above this are not yet folded into the balance.
+    @Column(nullable = false)
+    private Long lastPostingId;
+
+    @Column(nullable = false)
+    private LocalDateTime takenAt;
+}
@@ -0,0 +1,39 @@
+package com.banking.account.entity;
+
+import com.banking.common.money.Money;
+import com.banking.common.money.MoneyConverter;
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.Immutable;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Immutable
+@Table(name = "account_postings", indexes = {
+        @Index(name = "idx_account_postings_account", columnList = "account_number, id")
+})
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class Posting {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private String accountNumber;
+
+    @Column(nullable = false)
+    private String entryType;
+
+    @Column(nullable = false)
+    @Convert(converter = MoneyConverter.class)
+    private Money amount;
+
+    private String counterpartyAccountNumber;
+
+    @Column(nullable = false)
+    private LocalDateTime postedAt;
+}
@@ -0,0 +1,45 @@
+package com.banking.account.entity;
+
+import com.banking.common.money.Money;
+import com.banking.common.money.MoneyConverter;
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * A transfer between accounts on different shards. The source shard holds the saga itself
+ * (DEBITED, then COMPLETED or COMPENSATED); the destination shard holds a row with the same id
+ * recording whether the credit was applied (CREDITED) or fenced off (CANCELLED).
+ */
+@Entity
+@Table(name = "account_transfer_sagas", indexes = {
+        @Index(name = "idx_account_transfer_sagas_status", columnList = "status, created_at")
+})
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class TransferSaga {
+    @Id
+    private Long id;
+
+    @Column(nullable = false)
+    private String sourceAccountNumber;
+
+    @Column(nullable = false)
+    private String destinationAccountNumber;
+
+    @Column(nullable = false)
+    @Convert(converter = MoneyConverter.class)
+    private Money amount;
+
+    @Column(nullable = false, length = 16)
+    private String status;
+
+    @Column(nullable = false)
+    private LocalDateTime createdAt;
+
+    @Column(nullable = false)
+    private LocalDateTime modifiedAt;
+}
@@ -0,0 +1,9 @@
+package com.banking.account.repository;
+
+import com.banking.account.entity.AccountOutboxEvent;
+import com.banking.common.outbox.OutboxEventRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface AccountOutboxEventRepository extends OutboxEventRepository<AccountOutboxEvent> {
+}
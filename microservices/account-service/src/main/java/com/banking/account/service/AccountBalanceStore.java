@@ -0,0 +1,202 @@
+package com.banking.account.service;
+
+import com.banking.common.money.Money;
+import com.banking.common.sharding.ShardRouter;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.BadSqlGrammarException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Reads and writes balances in the narrow {@code account_balances} table with plain statements,
+ * so the transfer path never loads or dirty-checks an {@code Account} row. Credits and debits are
+ * applied in place by conditional updates; a debit that would overdraw matches no row. Writes run
+ * on the shard of the caller's transaction; lookups outside a transaction go to each account's shard.
+ */
+@Component
+@Slf4j
+public class AccountBalanceStore {
+    // Accounts created before balances moved out of the accounts table keep their stored balance,
+    // which opens their net deposits.
+    private static final String SEED_FROM_ACCOUNTS = "INSERT INTO account_balances "
+            + "(account_number, balance, net_deposits, opening_balance_at, modified_at) "
+            + "SELECT a.account_number, COALESCE(a.account_balance, 0), COALESCE(a.account_balance, 0), ?, "
+            + "CURRENT_TIMESTAMP FROM accounts a "
+            + "WHERE NOT EXISTS (SELECT 1 FROM account_balances b WHERE b.account_number = a.account_number)";
+    private static final String INSERT = "INSERT INTO account_balances (account_number, balance, net_deposits, modified_at) "
+            + "VALUES (?, ?, 0, CURRENT_TIMESTAMP)";
+    private static final String CREDIT = "UPDATE account_balances SET balance = balance + ?, "
+            + "modified_at = CURRENT_TIMESTAMP WHERE account_number = ?";
+    private static final String DEBIT = "UPDATE account_balances SET balance = balance - ?, "
+            + "modified_at = CURRENT_TIMESTAMP WHERE account_number = ? AND balance >= ?";
+    private static final String DEPOSIT = "UPDATE account_balances SET balance = balance + ?, "
+            + "net_deposits = net_deposits + ?, modified_at = CURRENT_TIMESTAMP WHERE account_number = ?";
+    private static final String WITHDRAW = "UPDATE account_balances SET balance = balance - ?, "
+            + "net_deposits = net_deposits - ?, modified_at = CURRENT_TIMESTAMP WHERE account_number = ? AND balance >= ?";
+    private static final String SET_BALANCE = "UPDATE account_balances SET balance = ?, "
+            + "modified_at = CURRENT_TIMESTAMP WHERE account_number = ?";
+    private static final String SET_TOTALS = "UPDATE account_balances SET balance = ?, net_deposits = ?, "
+            + "modified_at = CURRENT_TIMESTAMP WHERE account_number = ?";
+    private static final String TOTALS_AFTER = "SELECT account_number, balance, net_deposits, opening_balance_at "
+            + "FROM account_balances WHERE account_number > ? ORDER BY account_number LIMIT ?";
+    private static final String EXISTS = "SELECT COUNT(*) FROM account_balances WHERE account_number = ?";
+    private static final String LOCK = "SELECT account_number, balance FROM account_balances "
+            + "WHERE account_number IN (:accounts) ORDER BY account_number FOR UPDATE";
+    private static final String VIEW = "SELECT b.account_number, b.balance, a.first_name, a.last_name, "
+            + "a.other_name, a.email, b.net_deposits FROM account_balances b JOIN accounts a ON a.account_number = b.account_number ";
+    private static final String FIND = VIEW + "WHERE b.account_number = ?";
+    private static final String FIND_ALL = VIEW + "WHERE b.account_number IN (:accounts)";
+
+    private static final RowMapper<BalanceView> VIEW_MAPPER = (rs, rowNum) -> new BalanceView(
+            rs.getString(1),
+            AccountService.accountName(rs.getString(3), rs.getString(4), rs.getString(5)),
+            rs.getString(6),
+            Money.of(rs.getBigDecimal(2)),
+            Money.of(rs.getBigDecimal(7)));
+    private static final RowMapper<BalanceTotals> TOTALS_MAPPER = (rs, rowNum) -> new BalanceTotals(
+            rs.getString(1), Money.of(rs.getBigDecimal(2)), Money.of(rs.getBigDecimal(3)),
+            rs.getTimestamp(4) == null ? null : rs.getTimestamp(4).toLocalDateTime());
+
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedJdbcTemplate;
+    private final ShardRouter shardRouter;
+
+    public AccountBalanceStore(JdbcTemplate jdbcTemplate, NamedParameterJdbcTemplate namedJdbcTemplate,
+                               ShardRouter shardRouter) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.namedJdbcTemplate = namedJdbcTemplate;
+        this.shardRouter = shardRouter;
+    }
+
+    @PostConstruct
+    public void migrate() {
+        shardRouter.forEachShard(shard -> {
+            try {
+                // Stamped with this clock, as transaction-service stamps transactions with its own.
+                int seeded = jdbcTemplate.update(SEED_FROM_ACCOUNTS, Timestamp.valueOf(LocalDateTime.now()));
+                if (seeded > 0) {
+                    log.info("Moved balances of {} accounts into account_balances", seeded);
+                }
+            } catch (BadSqlGrammarException e) {
+                // Schemas created after the split have no balance column on accounts to copy from.
+            }
+        });
+    }
+
+    public void open(String accountNumber, Money balance) {
+        jdbcTemplate.update(INSERT, accountNumber, balance.toBigDecimal());
+    }
+
+    public boolean credit(String accountNumber, Money amount) {
+        return jdbcTemplate.update(CREDIT, amount.toBigDecimal(), accountNumber) == 1;
+    }
+
+    /**
+     * Returns false when the account does not exist or holds less than {@code amount}.
+     */
+    public boolean debit(String accountNumber, Money amount) {
+        return jdbcTemplate.update(DEBIT, amount.toBigDecimal(), accountNumber, amount.toBigDecimal()) == 1;
+    }
+
+    /**
+     * Credits a deposit, which unlike a transfer credit also counts towards the account's net deposits.
+     */
+    public boolean deposit(String accountNumber, Money amount) {
+        return jdbcTemplate.update(DEPOSIT, amount.toBigDecimal(), amount.toBigDecimal(), accountNumber) == 1;
+    }
+
+    /**
+     * Returns false when the account does not exist or holds less than {@code amount}.
+     */
+    public boolean withdraw(String accountNumber, Money amount) {
+        return jdbcTemplate.update(WITHDRAW, amount.toBigDecimal(), amount.toBigDecimal(), accountNumber,
+                amount.toBigDecimal()) == 1;
+    }
+
+    public boolean exists(String accountNumber) {
+        return shardRouter.onShardOf(accountNumber,
+                () -> jdbcTemplate.queryForObject(EXISTS, Integer.class, accountNumber) > 0);
+    }
+
+    public Optional<BalanceView> find(String accountNumber) {
+        return shardRouter.onShardOf(accountNumber,
+                () -> jdbcTemplate.query(FIND, VIEW_MAPPER, accountNumber).stream().findFirst());
+    }
+
+    public Map<String, BalanceView> findAll(Collection<String> accountNumbers) {
+        Map<String, BalanceView> views = new HashMap<>();
+        shardRouter.groupByShard(accountNumbers, accountNumber -> accountNumber).forEach((shard, group) ->
+                shardRouter.onShard(shard, () -> namedJdbcTemplate.query(FIND_ALL, Map.of("accounts", group), VIEW_MAPPER))
+                        .forEach(view -> views.put(view.accountNumber(), view)));
+        return views;
+    }
+
+    /**
+     * Locks the balance rows of the given accounts in account-number order until the transaction ends.
+     */
+    public Map<String, Money> lock(Collection<String> accountNumbers) {
+        Map<String, Money> balances = new LinkedHashMap<>();
+        if (!accountNumbers.isEmpty()) {
+            namedJdbcTemplate.query(LOCK, Map.of("accounts", accountNumbers),
+                    (RowCallbackHandler) rs -> balances.put(rs.getString(1), Money.of(rs.getBigDecimal(2))));
+        }
+        return balances;
+    }
+
+    public void updateAll(Map<String, Money> balances) {
+        if (balances.isEmpty()) {
+            return;
+        }
+        List<Object[]> args = new ArrayList<>(balances.size());
+        balances.forEach((accountNumber, balance) -> args.add(new Object[]{balance.toBigDecimal(), accountNumber}));
+        jdbcTemplate.batchUpdate(SET_BALANCE, args);
+    }
+
+    public void updateTotals(Collection<BalanceTotals> totals) {
+        if (totals.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate(SET_TOTALS, totals, totals.size(), (ps, t) -> {
+            ps.setBigDecimal(1, t.balance().toBigDecimal());
+            ps.setBigDecimal(2, t.netDeposits().toBigDecimal());
+            ps.setString(3, t.accountNumber());
+        });
+    }
+
+    /**
+     * Returns up to {@code limit} accounts numbered after {@code after} in account-number order,
+     * merged across shards.
+     */
+    public List<BalanceTotals> totalsAfter(String after, int limit) {
+        List<BalanceTotals> totals = new ArrayList<>();
+        shardRouter.forEachShard(shard -> totals.addAll(
+                jdbcTemplate.query(TOTALS_AFTER, TOTALS_MAPPER, after == null ? "" : after, limit)));
+        totals.sort(Comparator.comparing(BalanceTotals::accountNumber));
+        return totals.size() > limit ? new ArrayList<>(totals.subList(0, limit)) : totals;
+    }
+
+    public record BalanceView(String accountNumber, String accountName, String email, Money balance,
+                              Money netDeposits) {
+    }
+
+    public record BalanceTotals(String accountNumber, Money balance, Money netDeposits, LocalDateTime openingBalanceAt) {
+        public BalanceTotals(String accountNumber, Money balance, Money netDeposits) {
+            this(accountNumber, balance, netDeposits, null);
+        }
+    }
+}
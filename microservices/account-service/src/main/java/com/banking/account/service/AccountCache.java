@@ -0,0 +1,67 @@
+package com.banking.account.service;
+
+import com.banking.common.money.Money;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * Bounded read-through cache in front of account lookups. Entries are dropped on every local
+ * write (again after commit, so a concurrent reader cannot re-cache the pre-commit row) and
+ * expire after a short TTL to bound staleness of writes made by other instances.
+ */
+@Component
+public class AccountCache {
+    private final Cache<String, CachedAccount> cache;
+
+    public AccountCache(MeterRegistry meterRegistry,
+                        @Value("${banking.account-cache.max-size:100000}") long maxSize,
+                        @Value("${banking.account-cache.ttl:5s}") Duration ttl) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "accounts");
+    }
+
+    public Optional<CachedAccount> get(String accountNumber, Function<String, Optional<CachedAccount>> loader) {
+        return Optional.ofNullable(cache.get(accountNumber, number -> loader.apply(number).orElse(null)));
+    }
+
+    public Map<String, CachedAccount> getAll(Collection<String> accountNumbers,
+                                             Function<? super Set<? extends String>, Map<String, CachedAccount>> loader) {
+        return cache.getAll(accountNumbers, loader);
+    }
+
+    public void invalidate(String accountNumber) {
+        cache.invalidate(accountNumber);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    cache.invalidate(accountNumber);
+                }
+            });
+        }
+    }
+
+    public void invalidateAll(Collection<String> accountNumbers) {
+        accountNumbers.forEach(this::invalidate);
+    }
+
+    public record CachedAccount(String accountName, String accountNumber, Money accountBalance) {
+    }
+}
@@ -0,0 +1,283 @@
+package com.banking.account.service;
+
+import com.banking.account.dto.AccountFilterUpdate;
+import com.banking.common.id.SnowflakeIdGenerator;
+import com.banking.common.sharding.ShardRouter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.discovery.DiscoveryClient;
+import org.springframework.cloud.client.serviceregistry.Registration;
+import org.springframework.http.client.SimpleClientHttpRequestFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.client.RestClient;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Bloom filters over account numbers and emails that answer most lookups for accounts that do
+ * not exist without reading the database. A positive answer still goes to the database, and when
+ * that finds nothing it is counted as a false positive.
+ * The filters are built from the accounts table at startup. Accounts created here are added at
+ * once and broadcast to the other instances after commit; a periodic keyset scan of newer rows
+ * catches up on any broadcast an instance missed. Until that scan has run, an account created on
+ * another instance may be missing, so a miss is only definite for account numbers issued before
+ * {@code banking.account-filter.recheck-window} and for emails not on rows newer than the last scan;
+ * anything else is checked against the database before answering.
+ */
+@Component
+@Slf4j
+public class AccountFilter {
+    private static final String COUNT_ACCOUNTS = "SELECT COUNT(*) FROM accounts";
+    private static final String ACCOUNTS_AFTER = "SELECT id, account_number, email FROM accounts WHERE id > ? ORDER BY id";
+    private static final String ACCOUNT_EXISTS = "SELECT COUNT(*) FROM accounts WHERE account_number = ?";
+    private static final String EMAIL_EXISTS_AFTER = "SELECT COUNT(*) FROM accounts WHERE email = ? AND id > ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final JdbcTemplate streamingJdbcTemplate;
+    private final ShardRouter shardRouter;
+    private final ObjectProvider<DiscoveryClient> discoveryClient;
+    private final ObjectProvider<Registration> registration;
+    private final RestClient restClient;
+    private final String serviceName;
+    private final boolean enabled;
+    private final long expectedAccounts;
+    private final double falsePositiveProbability;
+    private final long recheckWindowMillis;
+    private final Counter misses;
+    private final Counter lateHits;
+    private final Counter falsePositives;
+    private final ExecutorService broadcastExecutor = Executors.newVirtualThreadPerTaskExecutor();
+    private BloomFilter accountNumbers;
+    private BloomFilter emails;
+    // Per shard. Rows that commit out of id order are picked up by rescanning from the watermark before last.
+    private final long[] previousWatermarks;
+    private final long[] watermarks;
+
+    public AccountFilter(JdbcTemplate jdbcTemplate,
+                         ShardRouter shardRouter,
+                         ObjectProvider<DiscoveryClient> discoveryClient,
+                         ObjectProvider<Registration> registration,
+                         RestClient.Builder restClientBuilder,
+                         MeterRegistry meterRegistry,
+                         @Value("${spring.application.name:account-service}") String serviceName,
+                         @Value("${banking.account-filter.enabled:true}") boolean enabled,
+                         @Value("${banking.account-filter.expected-accounts:1000000}") long expectedAccounts,
+                         @Value("${banking.account-filter.false-positive-probability:0.01}") double falsePositiveProbability,
+                         @Value("${banking.account-filter.broadcast-timeout:1s}") Duration broadcastTimeout,
+                         @Value("${banking.account-filter.catch-up-interval-ms:30000}") long catchUpIntervalMs,
+                         @Value("${banking.account-filter.recheck-window:2m}") Duration recheckWindow) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.streamingJdbcTemplate = new JdbcTemplate(jdbcTemplate.getDataSource());
+        this.streamingJdbcTemplate.setFetchSize(1000);
+        this.shardRouter = shardRouter;
+        this.previousWatermarks = new long[shardRouter.shardCount()];
+        this.watermarks = new long[shardRouter.shardCount()];
+        this.discoveryClient = discoveryClient;
+        this.registration = registration;
+        SimpleClientHttpRequestFactory requestFactory = new SimpleClientHttpRequestFactory();
+        requestFactory.setConnectTimeout(broadcastTimeout);
+        requestFactory.setReadTimeout(broadcastTimeout);
+        this.restClient = restClientBuilder.requestFactory(requestFactory).build();
+        this.serviceName = serviceName;
+        this.enabled = enabled;
+        this.expectedAccounts = expectedAccounts;
+        this.falsePositiveProbability = falsePositiveProbability;
+        // A row can be missed by one catch-up scan and only picked up by the next rescan.
+        this.recheckWindowMillis = Math.max(recheckWindow.toMillis(), 2 * catchUpIntervalMs + broadcastTimeout.toMillis());
+        this.misses = meterRegistry.counter("account.filter.lookups", "result", "miss");
+        this.falsePositives = meterRegistry.counter("account.filter.lookups", "result", "false_positive");
+        this.lateHits = meterRegistry.counter("account.filter.lookups", "result", "late");
+        Gauge.builder("account.filter.false.positive.rate", this, AccountFilter::observedFalsePositiveRate)
+                .description("Share of lookups for absent accounts that the filter let through to the database")
+                .register(meterRegistry);
+        Gauge.builder("account.filter.expected.false.positive.rate", this,
+                        filter -> filter.enabled ? filter.accountNumbers.expectedFalsePositiveProbability() : 0)
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void build() {
+        if (!enabled) {
+            return;
+        }
+        long started = System.currentTimeMillis();
+        // Leave room for growth so the false-positive rate holds until the next restart.
+        long[] count = {0};
+        shardRouter.forEachShard(shard -> count[0] += streamingJdbcTemplate.queryForObject(COUNT_ACCOUNTS, Long.class));
+        long capacity = Math.max(expectedAccounts, 2 * count[0]);
+        accountNumbers = new BloomFilter(capacity, falsePositiveProbability);
+        emails = new BloomFilter(capacity, falsePositiveProbability);
+        shardRouter.forEachShard(shard -> {
+            watermarks[shard] = scanAfter(0);
+            previousWatermarks[shard] = watermarks[shard];
+        });
+        log.info("Built account filters over {} accounts in {} ms", accountNumbers.insertions(),
+                System.currentTimeMillis() - started);
+    }
+
+    @Scheduled(fixedDelayString = "${banking.account-filter.catch-up-interval-ms:30000}")
+    public void catchUp() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            shardRouter.forEachShard(shard -> {
+                long scanned = scanAfter(previousWatermarks[shard]);
+                previousWatermarks[shard] = watermarks[shard];
+                watermarks[shard] = Math.max(watermarks[shard], scanned);
+            });
+            if (accountNumbers.insertions() > accountNumbers.capacity()) {
+                log.warn("Account filter holds {} accounts but was sized for {}; raise "
+                        + "banking.account-filter.expected-accounts or restart to resize",
+                        accountNumbers.insertions(), accountNumbers.capacity());
+            }
+        } catch (Exception e) {
+            log.warn("Account filter catch-up failed, will retry: {}", e.getMessage());
+        }
+    }
+
+    public boolean mightContainAccount(String accountNumber) {
+        if (!enabled || accountNumber == null || accountNumbers.mightContain(accountNumber)) {
+            return true;
+        }
+        long issuedAt = SnowflakeIdGenerator.timestampOf(accountNumber);
+        if (issuedAt >= 0 && System.currentTimeMillis() - issuedAt < recheckWindowMillis
+                && shardRouter.onShardOf(accountNumber,
+                        () -> jdbcTemplate.queryForObject(ACCOUNT_EXISTS, Long.class, accountNumber) > 0)) {
+            return late(accountNumber, null);
+        }
+        misses.increment();
+        return false;
+    }
+
+    public boolean mightContainEmail(String email) {
+        if (!enabled || email == null || emails.mightContain(normalizeEmail(email))) {
+            return true;
+        }
+        for (int shard = 0; shard < shardRouter.shardCount(); shard++) {
+            long watermark = previousWatermarks[shard];
+            if (shardRouter.onShard(shard, () -> jdbcTemplate.queryForObject(EMAIL_EXISTS_AFTER, Long.class, email, watermark) > 0)) {
+                return late(null, email);
+            }
+        }
+        misses.increment();
+        return false;
+    }
+
+    /**
+     * Records that a lookup the filter let through found no account.
+     */
+    public void falsePositive() {
+        if (enabled) {
+            falsePositives.increment();
+        }
+    }
+
+    /**
+     * Adds a new account here and, once the creating transaction commits, on the other instances.
+     */
+    public void added(String accountNumber, String email) {
+        if (!enabled) {
+            return;
+        }
+        add(accountNumber, email);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    broadcast(new AccountFilterUpdate(accountNumber, email));
+                }
+            });
+        } else {
+            broadcast(new AccountFilterUpdate(accountNumber, email));
+        }
+    }
+
+    public void add(String accountNumber, String email) {
+        if (!enabled) {
+            return;
+        }
+        accountNumbers.add(accountNumber);
+        if (email != null) {
+            emails.add(normalizeEmail(email));
+        }
+    }
+
+    // Found in the database before the broadcast or catch-up scan reached this instance.
+    private boolean late(String accountNumber, String email) {
+        lateHits.increment();
+        if (accountNumber != null) {
+            accountNumbers.add(accountNumber);
+        }
+        if (email != null) {
+            emails.add(normalizeEmail(email));
+        }
+        return true;
+    }
+
+    private long scanAfter(long id) {
+        long[] last = {id};
+        streamingJdbcTemplate.query(ACCOUNTS_AFTER, (RowCallbackHandler) rs -> {
+            last[0] = rs.getLong(1);
+            add(rs.getString(2), rs.getString(3));
+        }, id);
+        return last[0];
+    }
+
+    private void broadcast(AccountFilterUpdate update) {
+        DiscoveryClient discovery = discoveryClient.getIfAvailable();
+        if (discovery == null) {
+            return;
+        }
+        Registration self = registration.getIfAvailable();
+        List<ServiceInstance> peers = discovery.getInstances(serviceName).stream()
+                .filter(instance -> self == null || !instance.getInstanceId().equals(self.getInstanceId()))
+                .toList();
+        for (ServiceInstance peer : peers) {
+            broadcastExecutor.execute(() -> {
+                try {
+                    restClient.post()
+                            .uri(peer.getUri().resolve("/internal/accounts/filter"))
+                            .body(update)
+                            .retrieve()
+                            .toBodilessEntity();
+                } catch (Exception e) {
+                    log.debug("Account filter broadcast to {} failed, catch-up will cover it: {}",
+                            peer.getInstanceId(), e.getMessage());
+                }
+            });
+        }
+    }
+
+    private double observedFalsePositiveRate() {
+        double falsePositiveCount = falsePositives.count();
+        double total = falsePositiveCount + misses.count();
+        return total == 0 ? 0 : falsePositiveCount / total;
+    }
+
+    // Emails are compared case-insensitively by the column collation.
+    private static String normalizeEmail(String email) {
+        return email.toLowerCase(Locale.ROOT);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        broadcastExecutor.shutdown();
+    }
+}
@@ -2,33 +2,72 @@ package com.banking.account.service;
 
 import com.banking.account.dto.AccountRequest;
 import com.banking.account.dto.AccountResponse;
+import com.banking.account.dto.AccountsResponse;
+import com.banking.account.dto.BalanceChangedEvent;
+import com.banking.account.dto.BalanceTotalsResponse;
+import com.banking.account.dto.BatchTransferResponse;
+import com.banking.account.dto.TransferRequest;
 import com.banking.account.entity.Account;
+import com.banking.account.entity.Posting;
 import com.banking.account.repository.AccountRepository;
+import com.banking.common.audit.AuditPublisher;
+import com.banking.common.id.SnowflakeIdGenerator;
+import com.banking.common.idempotency.IdempotencyConflictException;
+import com.banking.common.idempotency.IdempotencyStore;
+import com.banking.common.money.Money;
+import com.banking.common.outbox.OutboxEvent;
+import com.banking.common.outbox.OutboxWriter;
+import com.banking.common.sharding.ShardRouter;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
 
-import java.math.BigDecimal;
-import java.security.SecureRandom;
-import java.time.Year;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
 
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class AccountService {
     private final AccountRepository accountRepository;
-    private final SecureRandom secureRandom = new SecureRandom();
+    private final AccountBalanceStore balanceStore;
+    private final AccountFilter accountFilter;
+    private final LedgerEngine ledgerEngine;
+    private final AccountCache accountCache;
+    private final AuditPublisher auditPublisher;
+    private final TransactionTemplate transactionTemplate;
+    private final SnowflakeIdGenerator idGenerator;
+    private final IdempotencyStore idempotencyStore;
+    private final OutboxWriter outboxWriter;
+    private final PostingJournal postingJournal;
+    private final ShardRouter shardRouter;
+    private final CrossShardTransfer crossShardTransfer;
+
+    @Value("${banking.transfer.batch.max-size:5000}")
+    private int maxBatchSize;
+
+    @Value("${banking.account.multi-get.max-size:500}")
+    private int maxMultiGetSize;
 
-    @Transactional
     public AccountResponse createAccount(AccountRequest request) {
         try {
-            if (accountRepository.existsByEmail(request.getEmail())) {
-                return AccountResponse.builder()
-                        .responseCode("001")
-                        .responseMessage("Account already exists with this email")
-                        .build();
+            if (accountFilter.mightContainEmail(request.getEmail())) {
+                if (emailTaken(request.getEmail())) {
+                    return AccountResponse.builder()
+                            .responseCode("001")
+                            .responseMessage("Account already exists with this email")
+                            .build();
+                }
+                accountFilter.falsePositive();
             }
 
             Account account = Account.builder()
@@ -39,25 +78,31 @@ public class AccountService {
                     .address(request.getAddress())
                     .stateOfOrigin(request.getStateOfOrigin())
                     .accountNumber(generateAccountNumber())
-                    .accountBalance(BigDecimal.ZERO)
                     .email(request.getEmail())
                     .phoneNumber(request.getPhoneNumber())
                     .alternativePhoneNumber(request.getAlternativePhoneNumber())
                     .status("ACTIVE")
                     .build();
 
-            Account savedAccount = accountRepository.save(account);
+            Account savedAccount = shardRouter.onShardOf(account.getAccountNumber(),
+                    () -> transactionTemplate.execute(status -> {
+                        Account saved = accountRepository.save(account);
+                        balanceStore.open(saved.getAccountNumber(), Money.ZERO);
+                        postingJournal.open(saved.getAccountNumber(), Money.ZERO);
+                        return saved;
+                    }));
+            accountCache.invalidate(savedAccount.getAccountNumber());
+            accountFilter.added(savedAccount.getAccountNumber(), savedAccount.getEmail());
+            auditPublisher.publish("ACCOUNT_CREATED", "ACCOUNT", savedAccount.getAccountNumber(), null);
             log.info("Account created successfully with account number: {}", savedAccount.getAccountNumber());
 
             return AccountResponse.builder()
                     .responseCode("200")
                     .responseMessage("Account created successfully")
                     .accountInfo(AccountResponse.AccountInfo.builder()
-                            .accountName(String.join(" ", savedAccount.getFirstName(), 
-                                    savedAccount.getLastName(), 
-                                    savedAccount.getOtherName() != null ? savedAccount.getOtherName() : ""))
+                            .accountName(accountName(savedAccount))
                             .accountNumber(savedAccount.getAccountNumber())
-                            .accountBalance(savedAccount.getAccountBalance())
+                            .accountBalance(Money.ZERO)
                             .build())
                     .build();
 
@@ -70,18 +115,33 @@ public class AccountService {
         }
     }
 
+    // Accounts are sharded by number, so an email can be held on any shard.
+    private boolean emailTaken(String email) {
+        for (int shard = 0; shard < shardRouter.shardCount(); shard++) {
+            if (shardRouter.onShard(shard, () -> accountRepository.existsByEmail(email))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
     public AccountResponse getAccountByNumber(String accountNumber) {
+        if (!accountFilter.mightContainAccount(accountNumber)) {
+            return AccountResponse.builder()
+                    .responseCode("404")
+                    .responseMessage("Account not found")
+                    .build();
+        }
         try {
-            return accountRepository.findByAccountNumber(accountNumber)
+            return accountCache.get(accountNumber, this::loadAccount)
                     .map(account -> AccountResponse.builder()
                             .responseCode("200")
                             .responseMessage("Account found")
                             .accountInfo(AccountResponse.AccountInfo.builder()
-                                    .accountName(String.join(" ", account.getFirstName(), 
-                                            account.getLastName(), 
-                                            account.getOtherName() != null ? account.getOtherName() : ""))
-                                    .accountNumber(account.getAccountNumber())
-                                    .accountBalance(account.getAccountBalance())
+                                    .accountName(account.accountName())
+                                    .accountNumber(account.accountNumber())
+                                    .accountBalance(ledgerEngine.balanceOf(account.accountNumber())
+                                            .orElse(account.accountBalance()))
                                     .build())
                             .build())
                     .orElse(AccountResponse.builder()
@@ -97,33 +157,143 @@ public class AccountService {
         }
     }
 
-    @Transactional
-    public AccountResponse updateBalance(String accountNumber, BigDecimal amount, String operation) {
+    public AccountsResponse getAccountsByNumbers(List<String> accountNumbers) {
+        if (accountNumbers.size() > maxMultiGetSize) {
+            return AccountsResponse.builder()
+                    .responseCode("400")
+                    .responseMessage("At most " + maxMultiGetSize + " account numbers can be requested at once")
+                    .build();
+        }
         try {
-            Optional<Account> accountOpt = accountRepository.findByAccountNumber(accountNumber);
-            if (accountOpt.isEmpty()) {
-                return AccountResponse.builder()
-                        .responseCode("404")
-                        .responseMessage("Account not found")
-                        .build();
+            // Cache hits are served directly; all misses are loaded with a single IN query.
+            Set<String> requested = new TreeSet<>(accountNumbers);
+            Set<String> candidates = new TreeSet<>();
+            for (String accountNumber : requested) {
+                if (accountFilter.mightContainAccount(accountNumber)) {
+                    candidates.add(accountNumber);
+                }
+            }
+            Map<String, AccountCache.CachedAccount> found = accountCache.getAll(candidates, this::loadAccounts);
+            List<AccountResponse.AccountInfo> accounts = new ArrayList<>(found.size());
+            for (AccountCache.CachedAccount account : found.values()) {
+                accounts.add(AccountResponse.AccountInfo.builder()
+                        .accountName(account.accountName())
+                        .accountNumber(account.accountNumber())
+                        .accountBalance(ledgerEngine.balanceOf(account.accountNumber()).orElse(account.accountBalance()))
+                        .build());
+            }
+            return AccountsResponse.builder()
+                    .responseCode("200")
+                    .responseMessage(accounts.size() + " of " + requested.size() + " accounts found")
+                    .accounts(accounts)
+                    .build();
+        } catch (Exception e) {
+            log.error("Error retrieving accounts: {}", e.getMessage());
+            return AccountsResponse.builder()
+                    .responseCode("500")
+                    .responseMessage("Internal server error occurred")
+                    .build();
+        }
+    }
+
+    private Map<String, AccountCache.CachedAccount> loadAccounts(Set<? extends String> accountNumbers) {
+        Map<String, AccountCache.CachedAccount> loaded = new HashMap<>();
+        balanceStore.findAll(List.copyOf(accountNumbers)).forEach((number, view) -> loaded.put(number, cached(view)));
+        for (int i = loaded.size(); i < accountNumbers.size(); i++) {
+            accountFilter.falsePositive();
+        }
+        return loaded;
+    }
+
+    private Optional<AccountCache.CachedAccount> loadAccount(String accountNumber) {
+        Optional<AccountCache.CachedAccount> account = balanceStore.find(accountNumber).map(AccountService::cached);
+        if (account.isEmpty()) {
+            accountFilter.falsePositive();
+        }
+        return account;
+    }
+
+    private static AccountCache.CachedAccount cached(AccountBalanceStore.BalanceView view) {
+        return new AccountCache.CachedAccount(view.accountName(), view.accountNumber(), view.balance());
+    }
+
+    /**
+     * Lists balances and net deposits of the accounts numbered after {@code after}, for reconciliation.
+     * Balances held by the ledger are reported ahead of their flush.
+     */
+    public BalanceTotalsResponse getBalanceTotals(String after, int limit) {
+        if (limit < 1 || limit > maxMultiGetSize) {
+            return BalanceTotalsResponse.builder()
+                    .responseCode("400")
+                    .responseMessage("Limit must be between 1 and " + maxMultiGetSize)
+                    .build();
+        }
+        try {
+            List<BalanceTotalsResponse.Totals> accounts = new ArrayList<>(limit);
+            for (AccountBalanceStore.BalanceTotals stored : balanceStore.totalsAfter(after, limit)) {
+                AccountBalanceStore.BalanceTotals totals = ledgerEngine.totalsOf(stored.accountNumber()).orElse(stored);
+                accounts.add(BalanceTotalsResponse.Totals.builder()
+                        .accountNumber(totals.accountNumber())
+                        .accountBalance(totals.balance())
+                        .netDeposits(totals.netDeposits())
+                        .openingBalanceAt(stored.openingBalanceAt())
+                        .build());
             }
+            return BalanceTotalsResponse.builder()
+                    .responseCode("200")
+                    .responseMessage(accounts.size() + " accounts listed")
+                    .accounts(accounts)
+                    .build();
+        } catch (Exception e) {
+            log.error("Error listing balance totals: {}", e.getMessage());
+            return BalanceTotalsResponse.builder()
+                    .responseCode("500")
+                    .responseMessage("Internal server error occurred")
+                    .build();
+        }
+    }
+
+    public AccountResponse updateBalance(String accountNumber, Money amount, String operation,
+                                         String idempotencyKey) {
+        try {
+            return idempotencyStore.execute("balance:" + accountNumber, idempotencyKey, accountNumber,
+                    List.of(amount, operation), AccountResponse.class, AccountService::isReplayable,
+                    () -> updateBalance(accountNumber, amount, operation));
+        } catch (IdempotencyConflictException e) {
+            return idempotencyConflict(e);
+        }
+    }
 
-            Account account = accountOpt.get();
-            BigDecimal currentBalance = account.getAccountBalance();
-            BigDecimal newBalance;
+    public AccountResponse updateBalance(String accountNumber, Money amount, String operation) {
+        if (!accountFilter.mightContainAccount(accountNumber)) {
+            return AccountResponse.builder()
+                    .responseCode("404")
+                    .responseMessage("Account not found")
+                    .build();
+        }
+        AccountResponse response = ledgerEngine.isEnabled()
+                ? updateLedgerBalance(accountNumber, amount, operation)
+                : shardRouter.onShardOf(accountNumber, () -> transactionTemplate.execute(
+                        status -> idempotencyStore.complete(updateStoredBalance(accountNumber, amount, operation, status))));
+        if ("404".equals(response.getResponseCode())) {
+            accountFilter.falsePositive();
+        }
+        return response;
+    }
 
+    private AccountResponse updateStoredBalance(String accountNumber, Money amount, String operation,
+                                                TransactionStatus status) {
+        try {
+            String change;
+            boolean applied;
             switch (operation.toUpperCase()) {
                 case "CREDIT", "DEPOSIT" -> {
-                    newBalance = currentBalance.add(amount);
+                    applied = balanceStore.deposit(accountNumber, amount);
+                    change = "CREDIT";
                 }
                 case "DEBIT", "WITHDRAW" -> {
-                    if (currentBalance.compareTo(amount) < 0) {
-                        return AccountResponse.builder()
-                                .responseCode("400")
-                                .responseMessage("Insufficient balance")
-                                .build();
-                    }
-                    newBalance = currentBalance.subtract(amount);
+                    applied = balanceStore.withdraw(accountNumber, amount);
+                    change = "DEBIT";
                 }
                 default -> {
                     return AccountResponse.builder()
@@ -133,8 +303,23 @@ public class AccountService {
                 }
             }
 
-            account.setAccountBalance(newBalance);
-            Account updatedAccount = accountRepository.save(account);
+            if (!applied) {
+                // A credit only misses an unknown account; a debit also misses when funds are short.
+                return "DEBIT".equals(change) && balanceStore.exists(accountNumber)
+                        ? AccountResponse.builder()
+                                .responseCode("400")
+                                .responseMessage("Insufficient balance")
+                                .build()
+                        : AccountResponse.builder()
+                                .responseCode("404")
+                                .responseMessage("Account not found")
+                                .build();
+            }
+
+            AccountBalanceStore.BalanceView updated = balanceStore.find(accountNumber).orElseThrow();
+            postingJournal.appendAll(List.of(postingJournal.posting(accountNumber, change, amount, null)));
+            outboxWriter.appendAll(List.of(balanceChanged(updated, change, amount, updated.balance(), null)));
+            accountCache.invalidate(accountNumber);
             
             log.info("Balance updated for account: {}, operation: {}, amount: {}", 
                     accountNumber, operation, amount);
@@ -143,16 +328,130 @@ public class AccountService {
                     .responseCode("200")
                     .responseMessage("Balance updated successfully")
                     .accountInfo(AccountResponse.AccountInfo.builder()
-                            .accountName(String.join(" ", updatedAccount.getFirstName(), 
-                                    updatedAccount.getLastName(), 
-                                    updatedAccount.getOtherName() != null ? updatedAccount.getOtherName() : ""))
-                            .accountNumber(updatedAccount.getAccountNumber())
-                            .accountBalance(updatedAccount.getAccountBalance())
+                            .accountName(updated.accountName())
+                            .accountNumber(updated.accountNumber())
+                            .accountBalance(updated.balance())
                             .build())
                     .build();
 
         } catch (Exception e) {
             log.error("Error updating balance: {}", e.getMessage());
+            status.setRollbackOnly();
+            return AccountResponse.builder()
+                    .responseCode("500")
+                    .responseMessage("Internal server error occurred")
+                    .build();
+        }
+    }
+
+    private AccountResponse updateLedgerBalance(String accountNumber, Money amount, String operation) {
+        LedgerEngine.LedgerResult result;
+        switch (operation.toUpperCase()) {
+            case "CREDIT", "DEPOSIT" -> result = ledgerEngine.credit(accountNumber, amount);
+            case "DEBIT", "WITHDRAW" -> result = ledgerEngine.debit(accountNumber, amount);
+            default -> {
+                return AccountResponse.builder()
+                        .responseCode("400")
+                        .responseMessage("Invalid operation. Use CREDIT or DEBIT")
+                        .build();
+            }
+        }
+
+        if (result.status() == LedgerEngine.Status.APPLIED) {
+            accountCache.invalidate(accountNumber);
+        }
+        return switch (result.status()) {
+            case NOT_FOUND, DESTINATION_NOT_FOUND -> AccountResponse.builder()
+                    .responseCode("404")
+                    .responseMessage("Account not found")
+                    .build();
+            case INSUFFICIENT_BALANCE -> AccountResponse.builder()
+                    .responseCode("400")
+                    .responseMessage("Insufficient balance")
+                    .build();
+            case REFUNDED -> throw new IllegalStateException("Balance updates are never refunded");
+            case APPLIED -> AccountResponse.builder()
+                    .responseCode("200")
+                    .responseMessage("Balance updated successfully")
+                    .accountInfo(AccountResponse.AccountInfo.builder()
+                            .accountName(result.accountName())
+                            .accountNumber(result.accountNumber())
+                            .accountBalance(result.balance())
+                            .build())
+                    .build();
+        };
+    }
+
+    public AccountResponse transfer(TransferRequest request, String idempotencyKey) {
+        try {
+            return idempotencyStore.execute("transfer", idempotencyKey, request.getSourceAccountNumber(), request,
+                    AccountResponse.class, AccountService::isReplayable, () -> transfer(request));
+        } catch (IdempotencyConflictException e) {
+            return idempotencyConflict(e);
+        }
+    }
+
+    public AccountResponse transfer(TransferRequest request) {
+        if (isSameAccount(request)) {
+            return AccountResponse.builder()
+                    .responseCode("400")
+                    .responseMessage("Source and destination accounts must be different")
+                    .build();
+        }
+        LedgerEngine.LedgerResult filtered = filterTransfer(request);
+        if (filtered != null) {
+            return toTransferResponse(filtered);
+        }
+        AccountResponse response = applyTransfer(request);
+        if ("404".equals(response.getResponseCode())) {
+            accountFilter.falsePositive();
+        }
+        return response;
+    }
+
+    /**
+     * Rejects a transfer whose source or destination the account filter knows does not exist,
+     * or returns null when both may exist.
+     */
+    private LedgerEngine.LedgerResult filterTransfer(TransferRequest transfer) {
+        if (!accountFilter.mightContainAccount(transfer.getSourceAccountNumber())) {
+            return LedgerEngine.LedgerResult.sourceNotFound();
+        }
+        if (!accountFilter.mightContainAccount(transfer.getDestinationAccountNumber())) {
+            return LedgerEngine.LedgerResult.destinationNotFound();
+        }
+        return null;
+    }
+
+    private void recordIfNotFound(LedgerEngine.LedgerResult result) {
+        if (result.status() == LedgerEngine.Status.NOT_FOUND
+                || result.status() == LedgerEngine.Status.DESTINATION_NOT_FOUND) {
+            accountFilter.falsePositive();
+        }
+    }
+
+    private AccountResponse applyTransfer(TransferRequest request) {
+        try {
+            if (ledgerEngine.isEnabled()) {
+                LedgerEngine.LedgerResult result = ledgerEngine.transfer(request.getSourceAccountNumber(),
+                        request.getDestinationAccountNumber(), request.getAmount());
+                if (result.status() == LedgerEngine.Status.APPLIED) {
+                    accountCache.invalidateAll(List.of(request.getSourceAccountNumber(),
+                            request.getDestinationAccountNumber()));
+                }
+                return toTransferResponse(result);
+            }
+            if (!shardRouter.sameShard(request.getSourceAccountNumber(), request.getDestinationAccountNumber())) {
+                LedgerEngine.LedgerResult result = crossShardTransfer.transfer(request.getSourceAccountNumber(),
+                        request.getDestinationAccountNumber(), request.getAmount());
+                accountCache.invalidateAll(List.of(request.getSourceAccountNumber(),
+                        request.getDestinationAccountNumber()));
+                return toTransferResponse(result);
+            }
+            return shardRouter.onShardOf(request.getSourceAccountNumber(), () -> transactionTemplate.execute(
+                    status -> idempotencyStore.complete(transferStoredBalances(request, status))));
+        } catch (Exception e) {
+            log.error("Error processing transfer: {}", e.getMessage());
             return AccountResponse.builder()
                     .responseCode("500")
                     .responseMessage("Internal server error occurred")
@@ -160,9 +459,360 @@ public class AccountService {
         }
     }
 
+    private AccountResponse transferStoredBalances(TransferRequest request, TransactionStatus status) {
+        // Write both rows in account-number order so opposing transfers cannot deadlock.
+        String sourceNumber = request.getSourceAccountNumber();
+        String destinationNumber = request.getDestinationAccountNumber();
+        Money amount = request.getAmount();
+        if (sourceNumber.compareTo(destinationNumber) < 0) {
+            if (!balanceStore.debit(sourceNumber, amount)) {
+                return toTransferResponse(debitFailure(sourceNumber));
+            }
+            if (!balanceStore.credit(destinationNumber, amount)) {
+                status.setRollbackOnly();
+                return toTransferResponse(LedgerEngine.LedgerResult.destinationNotFound());
+            }
+        } else {
+            if (!balanceStore.credit(destinationNumber, amount)) {
+                return toTransferResponse(balanceStore.exists(sourceNumber)
+                        ? LedgerEngine.LedgerResult.destinationNotFound()
+                        : LedgerEngine.LedgerResult.sourceNotFound());
+            }
+            if (!balanceStore.debit(sourceNumber, amount)) {
+                status.setRollbackOnly();
+                return toTransferResponse(debitFailure(sourceNumber));
+            }
+        }
+
+        Map<String, AccountBalanceStore.BalanceView> updated = balanceStore.findAll(List.of(sourceNumber, destinationNumber));
+        AccountBalanceStore.BalanceView source = updated.get(sourceNumber);
+        AccountBalanceStore.BalanceView destination = updated.get(destinationNumber);
+        postingJournal.appendAll(List.of(
+                postingJournal.posting(sourceNumber, "DEBIT", amount, destinationNumber),
+                postingJournal.posting(destinationNumber, "CREDIT", amount, sourceNumber)));
+        outboxWriter.appendAll(List.of(
+                balanceChanged(source, "DEBIT", amount, source.balance(), destinationNumber),
+                balanceChanged(destination, "CREDIT", amount, destination.balance(), sourceNumber)));
+        accountCache.invalidateAll(List.of(sourceNumber, destinationNumber));
+
+        log.info("Transfer applied from {} to {}, amount: {}", sourceNumber, destinationNumber, amount);
+        return toTransferResponse(LedgerEngine.LedgerResult.applied(source.accountName(),
+                sourceNumber, source.balance()));
+    }
+
+    private LedgerEngine.LedgerResult debitFailure(String sourceNumber) {
+        return balanceStore.exists(sourceNumber)
+                ? LedgerEngine.LedgerResult.insufficientBalance()
+                : LedgerEngine.LedgerResult.sourceNotFound();
+    }
+
+    public BatchTransferResponse transferBatch(List<TransferRequest> transfers, String idempotencyKey) {
+        try {
+            return idempotencyStore.execute("transfer-batch", idempotencyKey, transfers.get(0).getSourceAccountNumber(),
+                    transfers, BatchTransferResponse.class, response -> !"500".equals(response.getResponseCode()),
+                    () -> transferBatch(transfers));
+        } catch (IdempotencyConflictException e) {
+            return BatchTransferResponse.builder()
+                    .responseCode(e.getResponseCode())
+                    .responseMessage(e.getMessage())
+                    .build();
+        }
+    }
+
+    public BatchTransferResponse transferBatch(List<TransferRequest> transfers) {
+        if (transfers.size() > maxBatchSize) {
+            return BatchTransferResponse.builder()
+                    .responseCode("400")
+                    .responseMessage("Batch exceeds the maximum of " + maxBatchSize + " transfers")
+                    .build();
+        }
+        try {
+            BatchTransferResponse response;
+            if (ledgerEngine.isEnabled()) {
+                response = batchResponse(transferLedgerBatch(transfers));
+            } else if (shardRouter.isSharded()) {
+                response = batchResponse(transferShardedBatch(transfers));
+            } else {
+                response = transactionTemplate.execute(
+                        status -> idempotencyStore.complete(batchResponse(transferStoredBatch(transfers))));
+            }
+            auditPublisher.publish("TRANSFER_BATCH_SETTLED", "ACCOUNT", null, batchSummary(response.getResults()));
+            return response;
+        } catch (Exception e) {
+            log.error("Error processing transfer batch: {}", e.getMessage());
+            return BatchTransferResponse.builder()
+                    .responseCode("500")
+                    .responseMessage("Internal server error occurred")
+                    .build();
+        }
+    }
+
+    private static BatchTransferResponse batchResponse(List<BatchTransferResponse.Result> results) {
+        return BatchTransferResponse.builder()
+                .responseCode("200")
+                .responseMessage("Batch processed: " + batchSummary(results))
+                .results(results)
+                .build();
+    }
+
+    private static String batchSummary(List<BatchTransferResponse.Result> results) {
+        long settled = results.stream().filter(r -> "200".equals(r.getResponseCode())).count();
+        return settled + " settled, " + (results.size() - settled) + " rejected";
+    }
+
+    private List<BatchTransferResponse.Result> transferLedgerBatch(List<TransferRequest> transfers) {
+        List<BatchTransferResponse.Result> results = new ArrayList<>(transfers.size());
+        for (int i = 0; i < transfers.size(); i++) {
+            TransferRequest transfer = transfers.get(i);
+            if (isSameAccount(transfer)) {
+                results.add(sameAccountResult(i));
+                continue;
+            }
+            LedgerEngine.LedgerResult filtered = filterTransfer(transfer);
+            if (filtered != null) {
+                results.add(toBatchResult(i, filtered));
+                continue;
+            }
+            // Earlier transfers are already applied, so a failure must not fail the whole batch.
+            LedgerEngine.LedgerResult result;
+            try {
+                result = ledgerEngine.transfer(transfer.getSourceAccountNumber(),
+                        transfer.getDestinationAccountNumber(), transfer.getAmount());
+            } catch (Exception e) {
+                log.error("Error processing transfer {} of batch: {}", i, e.getMessage());
+                results.add(failedResult(i));
+                continue;
+            }
+            recordIfNotFound(result);
+            if (result.status() == LedgerEngine.Status.APPLIED) {
+                accountCache.invalidateAll(List.of(transfer.getSourceAccountNumber(),
+                        transfer.getDestinationAccountNumber()));
+            }
+            results.add(toBatchResult(i, result));
+        }
+        return results;
+    }
+
+    /**
+     * Settles the transfers within each shard as one netted batch on that shard, then runs the
+     * transfers between shards one at a time as sagas. Transfers between shards therefore see
+     * the balances left by all transfers within shards, whatever their order in the request.
+     * Each shard commits on its own, so a failure fails only the transfers it covers and the
+     * batch still answers 200, letting a retry under the same key replay what was committed.
+     */
+    private List<BatchTransferResponse.Result> transferShardedBatch(List<TransferRequest> transfers) {
+        BatchTransferResponse.Result[] results = new BatchTransferResponse.Result[transfers.size()];
+        Map<Integer, List<Integer>> local = new TreeMap<>();
+        List<Integer> crossShard = new ArrayList<>();
+        for (int i = 0; i < transfers.size(); i++) {
+            TransferRequest transfer = transfers.get(i);
+            if (isSameAccount(transfer)) {
+                results[i] = sameAccountResult(i);
+            } else if (shardRouter.sameShard(transfer.getSourceAccountNumber(), transfer.getDestinationAccountNumber())) {
+                local.computeIfAbsent(shardRouter.shardOf(transfer.getSourceAccountNumber()), shard -> new ArrayList<>())
+                        .add(i);
+            } else {
+                crossShard.add(i);
+            }
+        }
+
+        local.forEach((shard, indexes) -> {
+            List<TransferRequest> group = indexes.stream().map(transfers::get).toList();
+            List<BatchTransferResponse.Result> settled;
+            try {
+                settled = shardRouter.onShard(shard,
+                        () -> transactionTemplate.execute(status -> transferStoredBatch(group)));
+            } catch (Exception e) {
+                log.error("Error settling {} transfers of batch on shard {}: {}", indexes.size(), shard, e.getMessage());
+                indexes.forEach(i -> results[i] = failedResult(i));
+                return;
+            }
+            for (int j = 0; j < indexes.size(); j++) {
+                BatchTransferResponse.Result result = settled.get(j);
+                result.setIndex(indexes.get(j));
+                results[indexes.get(j)] = result;
+            }
+        });
+
+        for (int i : crossShard) {
+            TransferRequest transfer = transfers.get(i);
+            LedgerEngine.LedgerResult result = filterTransfer(transfer);
+            try {
+                if (result == null) {
+                    result = crossShardTransfer.transfer(transfer.getSourceAccountNumber(),
+                            transfer.getDestinationAccountNumber(), transfer.getAmount());
+                    recordIfNotFound(result);
+                    accountCache.invalidateAll(List.of(transfer.getSourceAccountNumber(),
+                            transfer.getDestinationAccountNumber()));
+                }
+                results[i] = toBatchResult(i, result);
+            } catch (Exception e) {
+                log.error("Error processing transfer {} of batch: {}", i, e.getMessage());
+                results[i] = failedResult(i);
+            }
+        }
+        return List.of(results);
+    }
+
+    private List<BatchTransferResponse.Result> transferStoredBatch(List<TransferRequest> transfers) {
+        // Lock every account touched by the batch once, in account-number order, then net the
+        // transfers in memory so each account row is written a single time.
+        Set<String> accountNumbers = new TreeSet<>();
+        LedgerEngine.LedgerResult[] filtered = new LedgerEngine.LedgerResult[transfers.size()];
+        for (int i = 0; i < transfers.size(); i++) {
+            TransferRequest transfer = transfers.get(i);
+            if (isSameAccount(transfer)) {
+                continue;
+            }
+            filtered[i] = filterTransfer(transfer);
+            if (filtered[i] == null) {
+                accountNumbers.add(transfer.getSourceAccountNumber());
+                accountNumbers.add(transfer.getDestinationAccountNumber());
+            }
+        }
+        Map<String, Money> locked = balanceStore.lock(accountNumbers);
+        Map<String, AccountBalanceStore.BalanceView> accounts = balanceStore.findAll(locked.keySet());
+        Map<String, Money> balances = new HashMap<>(locked);
+
+        List<BatchTransferResponse.Result> results = new ArrayList<>(transfers.size());
+        List<OutboxEvent> events = new ArrayList<>();
+        List<Posting> postings = new ArrayList<>();
+        for (int i = 0; i < transfers.size(); i++) {
+            TransferRequest transfer = transfers.get(i);
+            if (isSameAccount(transfer)) {
+                results.add(sameAccountResult(i));
+                continue;
+            }
+            String sourceNumber = transfer.getSourceAccountNumber();
+            String destinationNumber = transfer.getDestinationAccountNumber();
+            LedgerEngine.LedgerResult result;
+            if (filtered[i] != null) {
+                result = filtered[i];
+            } else if (!balances.containsKey(sourceNumber)) {
+                result = LedgerEngine.LedgerResult.sourceNotFound();
+                accountFilter.falsePositive();
+            } else if (!balances.containsKey(destinationNumber)) {
+                result = LedgerEngine.LedgerResult.destinationNotFound();
+                accountFilter.falsePositive();
+            } else if (balances.get(sourceNumber).isLessThan(transfer.getAmount())) {
+                result = LedgerEngine.LedgerResult.insufficientBalance();
+            } else {
+                balances.put(sourceNumber, balances.get(sourceNumber).minus(transfer.getAmount()));
+                balances.put(destinationNumber, balances.get(destinationNumber).plus(transfer.getAmount()));
+                result = LedgerEngine.LedgerResult.applied(null, sourceNumber, balances.get(sourceNumber));
+                postings.add(postingJournal.posting(sourceNumber, "DEBIT", transfer.getAmount(), destinationNumber));
+                postings.add(postingJournal.posting(destinationNumber, "CREDIT", transfer.getAmount(), sourceNumber));
+                events.add(balanceChanged(accounts.get(sourceNumber), "DEBIT", transfer.getAmount(),
+                        balances.get(sourceNumber), destinationNumber));
+                events.add(balanceChanged(accounts.get(destinationNumber), "CREDIT", transfer.getAmount(),
+                        balances.get(destinationNumber), sourceNumber));
+            }
+            results.add(toBatchResult(i, result));
+        }
+
+        Map<String, Money> changed = new HashMap<>();
+        balances.forEach((number, balance) -> {
+            if (!locked.get(number).equals(balance)) {
+                changed.put(number, balance);
+            }
+        });
+        balanceStore.updateAll(changed);
+        postingJournal.appendAll(postings);
+        outboxWriter.appendAll(events);
+        accountCache.invalidateAll(changed.keySet());
+        log.info("Transfer batch settled: {} transfers across {} accounts", transfers.size(), changed.size());
+        return results;
+    }
+
+    private OutboxEvent balanceChanged(AccountBalanceStore.BalanceView account, String change, Money amount,
+                                       Money balance, String counterparty) {
+        return outboxWriter.event(BalanceChangedEvent.AGGREGATE_TYPE, account.accountNumber(),
+                BalanceChangedEvent.TYPE, new BalanceChangedEvent(account.accountNumber(), account.email(),
+                        change, amount, balance, counterparty));
+    }
+
+    private boolean isSameAccount(TransferRequest transfer) {
+        return transfer.getSourceAccountNumber().equals(transfer.getDestinationAccountNumber());
+    }
+
+    private BatchTransferResponse.Result sameAccountResult(int index) {
+        return BatchTransferResponse.Result.builder()
+                .index(index)
+                .responseCode("400")
+                .responseMessage("Source and destination accounts must be different")
+                .build();
+    }
+
+    private BatchTransferResponse.Result failedResult(int index) {
+        return BatchTransferResponse.Result.builder()
+                .index(index)
+                .responseCode("500")
+                .responseMessage("Internal server error occurred")
+                .build();
+    }
+
+    private BatchTransferResponse.Result toBatchResult(int index, LedgerEngine.LedgerResult result) {
+        AccountResponse response = toTransferResponse(result);
+        return BatchTransferResponse.Result.builder()
+                .index(index)
+                .responseCode(response.getResponseCode())
+                .responseMessage(response.getResponseMessage())
+                .build();
+    }
+
+    private AccountResponse toTransferResponse(LedgerEngine.LedgerResult result) {
+        return switch (result.status()) {
+            case NOT_FOUND -> AccountResponse.builder()
+                    .responseCode("404")
+                    .responseMessage("Source account not found")
+                    .build();
+            case DESTINATION_NOT_FOUND -> AccountResponse.builder()
+                    .responseCode("404")
+                    .responseMessage("Destination account not found")
+                    .build();
+            case INSUFFICIENT_BALANCE -> AccountResponse.builder()
+                    .responseCode("400")
+                    .responseMessage("Insufficient balance")
+                    .build();
+            // Nothing moved, but the attempt is final: retrying needs a new Idempotency-Key.
+            case REFUNDED -> AccountResponse.builder()
+                    .responseCode("422")
+                    .responseMessage("Transfer could not be completed and was refunded")
+                    .build();
+            case APPLIED -> AccountResponse.builder()
+                    .responseCode("200")
+                    .responseMessage("Transfer completed successfully")
+                    .accountInfo(AccountResponse.AccountInfo.builder()
+                            .accountName(result.accountName())
+                            .accountNumber(result.accountNumber())
+                            .accountBalance(result.balance())
+                            .build())
+                    .build();
+        };
+    }
+
+    private static AccountResponse idempotencyConflict(IdempotencyConflictException e) {
+        return AccountResponse.builder()
+                .responseCode(e.getResponseCode())
+                .responseMessage(e.getMessage())
+                .build();
+    }
+
+    private static boolean isReplayable(AccountResponse response) {
+        return !"500".equals(response.getResponseCode());
+    }
+
+    static String accountName(Account account) {
+        return accountName(account.getFirstName(), account.getLastName(), account.getOtherName());
+    }
+
+    static String accountName(String firstName, String lastName, String otherName) {
+        return String.join(" ", firstName, 
+                lastName, 
+                otherName != null ? otherName : "");
+    }
+
     private String generateAccountNumber() {
-        Year currentYear = Year.now();
-        int randomNumber = secureRandom.nextInt(900000) + 100000;
-        return currentYear.toString() + randomNumber;
+        return idGenerator.next("");
     }
 }
\ No newline at end of file
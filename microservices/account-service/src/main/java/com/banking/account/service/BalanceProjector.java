@@ -0,0 +1,202 @@
+package com.banking.account.service;
+
+import com.banking.common.money.Money;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Treats stored balances as projections of the postings log in event-sourced mode. Every account
+ * has a snapshot holding its balance up to a posting id; its balance is that snapshot plus the
+ * postings after it. A scheduled job advances snapshots once an account's tail grows past
+ * {@code banking.postings.snapshot.min-postings}, so the startup rebuild only replays short tails.
+ * The rebuild walks accounts in pages with their rows locked and corrects any stored balance that
+ * disagrees with its projection; its memory is bounded by the page size and its time by the number
+ * of accounts plus their tails, however long the log grows.
+ */
+@Component
+@Slf4j
+public class BalanceProjector {
+    // Accounts that predate event-sourced mode start from their current balance and postings.
+    private static final String SEED_SNAPSHOTS = "INSERT INTO account_balance_snapshots "
+            + "(account_number, balance, last_posting_id, taken_at) "
+            + "SELECT b.account_number, b.balance, "
+            + "COALESCE((SELECT MAX(p.id) FROM account_postings p WHERE p.account_number = b.account_number), 0), ? "
+            + "FROM account_balances b WHERE NOT EXISTS "
+            + "(SELECT 1 FROM account_balance_snapshots s WHERE s.account_number = b.account_number)";
+    private static final String SNAPSHOT_PAGE = "SELECT account_number FROM account_balance_snapshots "
+            + "WHERE account_number > ? ORDER BY account_number LIMIT ?";
+    private static final String LATEST_SNAPSHOT_POSTING = "SELECT COALESCE(MAX(last_posting_id), 0) "
+            + "FROM account_balance_snapshots";
+    private static final String LATEST_POSTING = "SELECT COALESCE(MAX(id), 0) FROM account_postings";
+    private static final String POSTED_ACCOUNTS = "SELECT DISTINCT account_number FROM account_postings "
+            + "WHERE id > ? AND id <= ?";
+    private static final String TAILS = "SELECT s.account_number, s.balance, s.last_posting_id, "
+            + "COALESCE(SUM(CASE WHEN p.entry_type = 'CREDIT' THEN p.amount ELSE -p.amount END), 0) AS tail_amount, "
+            + "COALESCE(MAX(p.id), s.last_posting_id) AS tail_last_id, COUNT(p.id) AS tail_count "
+            + "FROM account_balance_snapshots s "
+            + "LEFT JOIN account_postings p ON p.account_number = s.account_number AND p.id > s.last_posting_id "
+            + "WHERE s.account_number IN (:accounts) "
+            + "GROUP BY s.account_number, s.balance, s.last_posting_id ORDER BY s.account_number";
+    private static final String ADVANCE_SNAPSHOT = "UPDATE account_balance_snapshots "
+            + "SET balance = ?, last_posting_id = ?, taken_at = ? WHERE account_number = ? AND last_posting_id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedJdbcTemplate;
+    private final AccountBalanceStore balanceStore;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean enabled;
+    private final boolean rebuildOnStartup;
+    private final int minPostings;
+    private final int pageSize;
+    private final int scanBatchSize;
+    private final Counter snapshotsAdvanced;
+    private final Counter balancesCorrected;
+    private long scannedUpTo;
+
+    public BalanceProjector(JdbcTemplate jdbcTemplate,
+                            NamedParameterJdbcTemplate namedJdbcTemplate,
+                            AccountBalanceStore balanceStore,
+                            PlatformTransactionManager transactionManager,
+                            MeterRegistry meterRegistry,
+                            @Value("${banking.postings.enabled:false}") boolean enabled,
+                            @Value("${banking.postings.rebuild.on-startup:true}") boolean rebuildOnStartup,
+                            @Value("${banking.postings.rebuild.page-size:1000}") int pageSize,
+                            @Value("${banking.postings.snapshot.min-postings:100}") int minPostings,
+                            @Value("${banking.postings.snapshot.scan-batch-size:10000}") int scanBatchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.namedJdbcTemplate = namedJdbcTemplate;
+        this.balanceStore = balanceStore;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.enabled = enabled;
+        this.rebuildOnStartup = rebuildOnStartup;
+        this.pageSize = Math.max(1, pageSize);
+        this.minPostings = Math.max(1, minPostings);
+        this.scanBatchSize = Math.max(1, scanBatchSize);
+        this.snapshotsAdvanced = meterRegistry.counter("postings.snapshots.advanced");
+        this.balancesCorrected = meterRegistry.counter("postings.projection.corrections");
+    }
+
+    @PostConstruct
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        int seeded = jdbcTemplate.update(SEED_SNAPSHOTS, Timestamp.valueOf(LocalDateTime.now()));
+        if (seeded > 0) {
+            log.info("Seeded opening snapshots for {} accounts", seeded);
+        }
+        if (rebuildOnStartup) {
+            rebuild();
+        }
+        scannedUpTo = jdbcTemplate.queryForObject(LATEST_SNAPSHOT_POSTING, Long.class);
+    }
+
+    private void rebuild() {
+        long started = System.currentTimeMillis();
+        long accounts = 0;
+        long replayed = 0;
+        long corrected = 0;
+        String after = "";
+        while (true) {
+            List<String> page = jdbcTemplate.queryForList(SNAPSHOT_PAGE, String.class, after, pageSize);
+            if (page.isEmpty()) {
+                break;
+            }
+            Projection projection = transactionTemplate.execute(status -> project(page, true, 1));
+            accounts += page.size();
+            replayed += projection.replayed();
+            corrected += projection.corrected();
+            after = page.get(page.size() - 1);
+            if (page.size() < pageSize) {
+                break;
+            }
+        }
+        log.info("Rebuilt {} balances from snapshots in {} ms, replaying {} postings and correcting {} balances",
+                accounts, System.currentTimeMillis() - started, replayed, corrected);
+    }
+
+    /**
+     * Folds new postings into the snapshots of the accounts they touched. A posting that commits
+     * after the scan has passed its id is picked up the next time its account is posted to.
+     */
+    @Scheduled(fixedDelayString = "${banking.postings.snapshot.interval-ms:60000}")
+    public void snapshot() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            long latest = jdbcTemplate.queryForObject(LATEST_POSTING, Long.class);
+            while (scannedUpTo < latest) {
+                long upTo = Math.min(latest, scannedUpTo + scanBatchSize);
+                List<String> posted = jdbcTemplate.queryForList(POSTED_ACCOUNTS, String.class, scannedUpTo, upTo);
+                for (int start = 0; start < posted.size(); start += pageSize) {
+                    List<String> page = posted.subList(start, Math.min(start + pageSize, posted.size()));
+                    transactionTemplate.execute(status -> project(page, false, minPostings));
+                }
+                scannedUpTo = upTo;
+            }
+        } catch (Exception e) {
+            log.warn("Snapshotting postings failed, will retry: {}", e.getMessage());
+        }
+    }
+
+    private Projection project(List<String> accountNumbers, boolean correctBalances, int minTail) {
+        Map<String, Object> params = Map.of("accounts", accountNumbers);
+        // Holding the rows keeps writers from posting to these accounts until the page commits.
+        Map<String, Money> stored = correctBalances ? balanceStore.lock(accountNumbers) : Map.of();
+        List<Tail> tails = namedJdbcTemplate.query(TAILS, params, (rs, rowNum) -> new Tail(rs.getString(1),
+                rs.getBigDecimal(2), rs.getLong(3), rs.getBigDecimal(4), rs.getLong(5), rs.getLong(6)));
+
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<Object[]> advances = new ArrayList<>();
+        Map<String, Money> corrections = new HashMap<>();
+        long replayed = 0;
+        for (Tail tail : tails) {
+            BigDecimal projected = tail.snapshotBalance().add(tail.amount());
+            replayed += tail.count();
+            if (tail.count() >= minTail) {
+                advances.add(new Object[]{projected, tail.lastPostingId(), now, tail.accountNumber(),
+                        tail.snapshotPostingId()});
+            }
+            Money current = stored.get(tail.accountNumber());
+            if (current != null && current.toBigDecimal().compareTo(projected) != 0) {
+                log.warn("Balance of {} was {} but its postings project {}; correcting",
+                        tail.accountNumber(), current, projected);
+                corrections.put(tail.accountNumber(), Money.of(projected));
+            }
+        }
+        if (!advances.isEmpty()) {
+            jdbcTemplate.batchUpdate(ADVANCE_SNAPSHOT, advances);
+            snapshotsAdvanced.increment(advances.size());
+        }
+        if (!corrections.isEmpty()) {
+            balanceStore.updateAll(corrections);
+            balancesCorrected.increment(corrections.size());
+        }
+        return new Projection(replayed, corrections.size());
+    }
+
+    private record Tail(String accountNumber, BigDecimal snapshotBalance, long snapshotPostingId,
+                        BigDecimal amount, long lastPostingId, long count) {
+    }
+
+    private record Projection(long replayed, int corrected) {
+    }
+}
@@ -0,0 +1,241 @@
+package com.banking.account.service;
+
+import com.banking.account.dto.BalanceChangedEvent;
+import com.banking.common.id.SnowflakeIdGenerator;
+import com.banking.common.money.Money;
+import com.banking.common.outbox.OutboxEvent;
+import com.banking.common.outbox.OutboxWriter;
+import com.banking.common.sharding.ShardRouter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Moves funds between accounts on different shards as a saga of local transactions: the source is
+ * debited and the saga recorded on its shard, then the destination is credited on its own shard.
+ * If the credit cannot be applied the source is refunded. Before refunding, a CANCELLED row is
+ * written on the destination shard under the saga id; the credit inserts a CREDITED row under the
+ * same id, so whichever commits first decides the outcome and a late credit cannot follow a refund.
+ * Sagas left DEBITED by a crash are resolved by {@link #recover()}.
+ */
+@Component
+@Slf4j
+public class CrossShardTransfer {
+    private static final String DEBITED = "DEBITED";
+    private static final String COMPLETED = "COMPLETED";
+    private static final String COMPENSATED = "COMPENSATED";
+    private static final String CREDITED = "CREDITED";
+    private static final String CANCELLED = "CANCELLED";
+
+    private static final String INSERT_SAGA = "INSERT INTO account_transfer_sagas (id, source_account_number, "
+            + "destination_account_number, amount, status, created_at, modified_at) VALUES (?, ?, ?, ?, ?, ?, ?)";
+    private static final String ADVANCE_SAGA = "UPDATE account_transfer_sagas SET status = ?, modified_at = ? "
+            + "WHERE id = ? AND status = 'DEBITED'";
+    private static final String SAGA_STATUS = "SELECT status FROM account_transfer_sagas WHERE id = ?";
+    private static final String STALLED_SAGAS = "SELECT id, source_account_number, destination_account_number, amount "
+            + "FROM account_transfer_sagas WHERE status = 'DEBITED' AND created_at < ? ORDER BY created_at LIMIT ?";
+
+    private static final RowMapper<Saga> SAGA_MAPPER = (rs, rowNum) -> new Saga(rs.getLong(1), rs.getString(2),
+            rs.getString(3), Money.of(rs.getBigDecimal(4)));
+
+    private final AccountBalanceStore balanceStore;
+    private final PostingJournal postingJournal;
+    private final OutboxWriter outboxWriter;
+    private final AccountCache accountCache;
+    private final ShardRouter shardRouter;
+    private final SnowflakeIdGenerator idGenerator;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final Duration recoverAfter;
+    private final int recoveryBatchSize;
+    private final Counter completed;
+    private final Counter compensated;
+
+    public CrossShardTransfer(AccountBalanceStore balanceStore,
+                              PostingJournal postingJournal,
+                              OutboxWriter outboxWriter,
+                              AccountCache accountCache,
+                              ShardRouter shardRouter,
+                              SnowflakeIdGenerator idGenerator,
+                              JdbcTemplate jdbcTemplate,
+                              PlatformTransactionManager transactionManager,
+                              MeterRegistry meterRegistry,
+                              @Value("${banking.sharding.saga.recover-after:30s}") Duration recoverAfter,
+                              @Value("${banking.sharding.saga.recovery-batch-size:100}") int recoveryBatchSize) {
+        this.balanceStore = balanceStore;
+        this.postingJournal = postingJournal;
+        this.outboxWriter = outboxWriter;
+        this.accountCache = accountCache;
+        this.shardRouter = shardRouter;
+        this.idGenerator = idGenerator;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.recoverAfter = recoverAfter;
+        this.recoveryBatchSize = Math.max(1, recoveryBatchSize);
+        this.completed = meterRegistry.counter("transfer.sagas", "outcome", "completed");
+        this.compensated = meterRegistry.counter("transfer.sagas", "outcome", "compensated");
+    }
+
+    public LedgerEngine.LedgerResult transfer(String sourceNumber, String destinationNumber, Money amount) {
+        Saga saga = new Saga(idGenerator.nextId(), sourceNumber, destinationNumber, amount);
+        LedgerEngine.LedgerResult debited = shardRouter.onShardOf(sourceNumber,
+                () -> transactionTemplate.execute(status -> debit(saga)));
+        if (debited.status() != LedgerEngine.Status.APPLIED) {
+            return debited;
+        }
+
+        boolean credited;
+        try {
+            credited = shardRouter.onShardOf(destinationNumber,
+                    () -> transactionTemplate.execute(status -> {
+                        if (!fence(saga, CREDITED)) {
+                            return false;
+                        }
+                        if (!balanceStore.credit(destinationNumber, amount)) {
+                            status.setRollbackOnly();
+                            return false;
+                        }
+                        AccountBalanceStore.BalanceView destination = balanceStore.find(destinationNumber).orElseThrow();
+                        postingJournal.appendAll(List.of(
+                                postingJournal.posting(destinationNumber, "CREDIT", amount, sourceNumber)));
+                        outboxWriter.appendAll(List.of(balanceChanged(destination, "CREDIT", amount, sourceNumber)));
+                        return true;
+                    }));
+        } catch (RuntimeException e) {
+            log.error("Credit of transfer {} to {} failed, resolving it: {}", saga.id(), destinationNumber,
+                    e.getMessage());
+            String outcome;
+            try {
+                outcome = resolve(saga);
+            } catch (RuntimeException resolveError) {
+                // Neither the credit nor the refund is known to have happened; recovery will settle it.
+                log.error("Resolving transfer {} failed, recovery will retry: {}", saga.id(), resolveError.getMessage());
+                throw e;
+            }
+            // The credit may have committed before its acknowledgement was lost.
+            return COMPLETED.equals(outcome) ? debited : LedgerEngine.LedgerResult.refunded();
+        }
+
+        if (credited) {
+            shardRouter.onShardOf(sourceNumber, () -> advance(saga, COMPLETED));
+            completed.increment();
+            return debited;
+        }
+        return COMPLETED.equals(resolve(saga)) ? debited : LedgerEngine.LedgerResult.destinationNotFound();
+    }
+
+    /**
+     * Settles sagas whose credit step never reported back: a credit that landed completes the saga,
+     * anything else is fenced off and refunded.
+     */
+    @Scheduled(fixedDelayString = "${banking.sharding.saga.recovery-interval-ms:30000}")
+    public void recover() {
+        if (!shardRouter.isSharded()) {
+            return;
+        }
+        Timestamp before = Timestamp.valueOf(LocalDateTime.now().minus(recoverAfter));
+        shardRouter.forEachShard(shard -> {
+            try {
+                List<Saga> stalled = jdbcTemplate.query(STALLED_SAGAS, SAGA_MAPPER, before, recoveryBatchSize);
+                for (Saga saga : stalled) {
+                    log.warn("Resolving stalled transfer {} from {} to {}", saga.id(), saga.sourceAccountNumber(),
+                            saga.destinationAccountNumber());
+                    resolve(saga);
+                }
+            } catch (Exception e) {
+                log.warn("Transfer saga recovery on shard {} failed, will retry: {}", shard, e.getMessage());
+            }
+        });
+    }
+
+    private LedgerEngine.LedgerResult debit(Saga saga) {
+        String sourceNumber = saga.sourceAccountNumber();
+        if (!balanceStore.debit(sourceNumber, saga.amount())) {
+            return balanceStore.exists(sourceNumber)
+                    ? LedgerEngine.LedgerResult.insufficientBalance()
+                    : LedgerEngine.LedgerResult.sourceNotFound();
+        }
+        insert(saga, DEBITED);
+        AccountBalanceStore.BalanceView source = balanceStore.find(sourceNumber).orElseThrow();
+        postingJournal.appendAll(List.of(
+                postingJournal.posting(sourceNumber, "DEBIT", saga.amount(), saga.destinationAccountNumber())));
+        outboxWriter.appendAll(List.of(balanceChanged(source, "DEBIT", saga.amount(), saga.destinationAccountNumber())));
+        return LedgerEngine.LedgerResult.applied(source.accountName(), sourceNumber, source.balance());
+    }
+
+    // Returns COMPLETED when the credit landed, otherwise COMPENSATED once the source is refunded.
+    private String resolve(Saga saga) {
+        boolean cancelled = shardRouter.onShardOf(saga.destinationAccountNumber(), () -> fence(saga, CANCELLED)
+                || CANCELLED.equals(jdbcTemplate.queryForObject(SAGA_STATUS, String.class, saga.id())));
+        if (!cancelled) {
+            shardRouter.onShardOf(saga.sourceAccountNumber(), () -> advance(saga, COMPLETED));
+            accountCache.invalidate(saga.destinationAccountNumber());
+            completed.increment();
+            return COMPLETED;
+        }
+        boolean refunded = shardRouter.onShardOf(saga.sourceAccountNumber(),
+                () -> transactionTemplate.execute(status -> {
+                    if (!advance(saga, COMPENSATED)) {
+                        return false;
+                    }
+                    String sourceNumber = saga.sourceAccountNumber();
+                    balanceStore.credit(sourceNumber, saga.amount());
+                    AccountBalanceStore.BalanceView source = balanceStore.find(sourceNumber).orElseThrow();
+                    postingJournal.appendAll(List.of(
+                            postingJournal.posting(sourceNumber, "CREDIT", saga.amount(), saga.destinationAccountNumber())));
+                    outboxWriter.appendAll(List.of(
+                            balanceChanged(source, "CREDIT", saga.amount(), saga.destinationAccountNumber())));
+                    return true;
+                }));
+        if (refunded) {
+            accountCache.invalidate(saga.sourceAccountNumber());
+            compensated.increment();
+            log.info("Refunded transfer {} of {} to {}", saga.id(), saga.amount(), saga.sourceAccountNumber());
+        }
+        // Otherwise a concurrent resolve already refunded it: the CANCELLED fence rules out a credit.
+        return COMPENSATED;
+    }
+
+    // Returns false when a row for this saga already exists on the current shard.
+    private boolean fence(Saga saga, String status) {
+        try {
+            insert(saga, status);
+            return true;
+        } catch (DuplicateKeyException e) {
+            return false;
+        }
+    }
+
+    private void insert(Saga saga, String status) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        jdbcTemplate.update(INSERT_SAGA, saga.id(), saga.sourceAccountNumber(), saga.destinationAccountNumber(),
+                saga.amount().toBigDecimal(), status, now, now);
+    }
+
+    private boolean advance(Saga saga, String status) {
+        return jdbcTemplate.update(ADVANCE_SAGA, status, Timestamp.valueOf(LocalDateTime.now()), saga.id()) == 1;
+    }
+
+    private OutboxEvent balanceChanged(AccountBalanceStore.BalanceView account, String change, Money amount,
+                                       String counterparty) {
+        return outboxWriter.event(BalanceChangedEvent.AGGREGATE_TYPE, account.accountNumber(),
+                BalanceChangedEvent.TYPE, new BalanceChangedEvent(account.accountNumber(), account.email(),
+                        change, amount, account.balance(), counterparty));
+    }
+
+    private record Saga(long id, String sourceAccountNumber, String destinationAccountNumber, Money amount) {
+    }
+}
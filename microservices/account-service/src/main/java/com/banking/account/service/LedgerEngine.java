@@ -0,0 +1,407 @@
+package com.banking.account.service;
+
+import com.banking.account.dto.BalanceChangedEvent;
+import com.banking.account.entity.Posting;
+import com.banking.common.money.Money;
+import com.banking.common.outbox.OutboxEvent;
+import com.banking.common.outbox.OutboxWriter;
+import com.banking.common.sharding.ShardRouter;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Keeps hot account balances in memory, partitioned into lock stripes by account number.
+ * Mutations are applied serially within a stripe and written behind to the database by
+ * a scheduled flush, together with the postings and outbox events for those mutations. Only enable it when a
+ * single account-service instance owns the balances. Balances are held as long minor units so
+ * applying a mutation does no decimal arithmetic.
+ */
+@Component
+@Slf4j
+public class LedgerEngine {
+    private final AccountBalanceStore balanceStore;
+    private final AccountCache accountCache;
+    private final OutboxWriter outboxWriter;
+    private final PostingJournal postingJournal;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean enabled;
+    private final int maxEntriesPerStripe;
+    private final Stripe[] stripes;
+    // Concurrent flushes could commit an older drain of a stripe after a newer one.
+    private final ReentrantLock flushLock = new ReentrantLock();
+
+    public LedgerEngine(AccountBalanceStore balanceStore,
+                        AccountCache accountCache,
+                        OutboxWriter outboxWriter,
+                        PostingJournal postingJournal,
+                        ShardRouter shardRouter,
+                        PlatformTransactionManager transactionManager,
+                        @Value("${banking.ledger.enabled:false}") boolean enabled,
+                        @Value("${banking.ledger.stripes:64}") int stripeCount,
+                        @Value("${banking.ledger.max-entries:100000}") int maxEntries) {
+        if ((enabled || postingJournal.isEnabled()) && shardRouter.isSharded()) {
+            throw new IllegalStateException("banking.ledger and banking.postings keep state across all accounts "
+                    + "and need a single database; disable them or remove banking.sharding.urls");
+        }
+        this.balanceStore = balanceStore;
+        this.accountCache = accountCache;
+        this.outboxWriter = outboxWriter;
+        this.postingJournal = postingJournal;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.enabled = enabled;
+        this.stripes = new Stripe[Math.max(1, stripeCount)];
+        for (int i = 0; i < stripes.length; i++) {
+            stripes[i] = new Stripe(i);
+        }
+        this.maxEntriesPerStripe = Math.max(1, maxEntries / stripes.length);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public LedgerResult credit(String accountNumber, Money amount) {
+        Stripe stripe = stripeFor(accountNumber);
+        while (true) {
+            if (!preload(stripe, accountNumber)) {
+                return LedgerResult.notFound();
+            }
+            stripe.lock.lock();
+            try {
+                Entry entry = stripe.entries.get(accountNumber);
+                if (entry == null) {
+                    continue;
+                }
+                entry.balance = Math.addExact(entry.balance, amount.minorUnits());
+                entry.netDeposits = Math.addExact(entry.netDeposits, amount.minorUnits());
+                entry.dirty = true;
+                stripe.record(postingJournal.posting(accountNumber, "CREDIT", amount, null),
+                        balanceChanged(accountNumber, entry, "CREDIT", amount, null));
+                return LedgerResult.applied(entry.accountName, accountNumber, Money.ofMinor(entry.balance));
+            } finally {
+                stripe.lock.unlock();
+            }
+        }
+    }
+
+    public LedgerResult debit(String accountNumber, Money amount) {
+        Stripe stripe = stripeFor(accountNumber);
+        while (true) {
+            if (!preload(stripe, accountNumber)) {
+                return LedgerResult.notFound();
+            }
+            stripe.lock.lock();
+            try {
+                Entry entry = stripe.entries.get(accountNumber);
+                if (entry == null) {
+                    continue;
+                }
+                if (entry.balance < amount.minorUnits()) {
+                    return LedgerResult.insufficientBalance();
+                }
+                entry.balance -= amount.minorUnits();
+                entry.netDeposits = Math.subtractExact(entry.netDeposits, amount.minorUnits());
+                entry.dirty = true;
+                stripe.record(postingJournal.posting(accountNumber, "DEBIT", amount, null),
+                        balanceChanged(accountNumber, entry, "DEBIT", amount, null));
+                return LedgerResult.applied(entry.accountName, accountNumber, Money.ofMinor(entry.balance));
+            } finally {
+                stripe.lock.unlock();
+            }
+        }
+    }
+
+    public LedgerResult transfer(String sourceAccountNumber, String destinationAccountNumber, Money amount) {
+        Stripe sourceStripe = stripeFor(sourceAccountNumber);
+        Stripe destinationStripe = stripeFor(destinationAccountNumber);
+        // Acquire stripes in index order so opposing transfers cannot deadlock.
+        Stripe first = sourceStripe.index <= destinationStripe.index ? sourceStripe : destinationStripe;
+        Stripe second = first == sourceStripe ? destinationStripe : sourceStripe;
+        while (true) {
+            if (!preload(sourceStripe, sourceAccountNumber)) {
+                return LedgerResult.sourceNotFound();
+            }
+            if (!preload(destinationStripe, destinationAccountNumber)) {
+                return LedgerResult.destinationNotFound();
+            }
+            first.lock.lock();
+            if (second != first) {
+                second.lock.lock();
+            }
+            try {
+                Entry source = sourceStripe.entries.get(sourceAccountNumber);
+                Entry destination = destinationStripe.entries.get(destinationAccountNumber);
+                if (source == null || destination == null) {
+                    continue;
+                }
+                if (source.balance < amount.minorUnits()) {
+                    return LedgerResult.insufficientBalance();
+                }
+                source.balance -= amount.minorUnits();
+                destination.balance = Math.addExact(destination.balance, amount.minorUnits());
+                source.dirty = true;
+                destination.dirty = true;
+                sourceStripe.record(
+                        postingJournal.posting(sourceAccountNumber, "DEBIT", amount, destinationAccountNumber),
+                        balanceChanged(sourceAccountNumber, source, "DEBIT", amount, destinationAccountNumber));
+                destinationStripe.record(
+                        postingJournal.posting(destinationAccountNumber, "CREDIT", amount, sourceAccountNumber),
+                        balanceChanged(destinationAccountNumber, destination, "CREDIT", amount, sourceAccountNumber));
+                return LedgerResult.applied(source.accountName, sourceAccountNumber, Money.ofMinor(source.balance));
+            } finally {
+                if (second != first) {
+                    second.lock.unlock();
+                }
+                first.lock.unlock();
+            }
+        }
+    }
+
+    /**
+     * Makes sure the account is held by its stripe, reading it from the database without holding
+     * the stripe lock. Returns false when the account does not exist. Callers still have to check
+     * under the lock, since the entry may be evicted again before they take it.
+     */
+    private boolean preload(Stripe stripe, String accountNumber) {
+        while (true) {
+            long evictions;
+            stripe.lock.lock();
+            try {
+                if (stripe.entries.containsKey(accountNumber)) {
+                    return true;
+                }
+                evictions = stripe.evictions;
+            } finally {
+                stripe.lock.unlock();
+            }
+            Optional<AccountBalanceStore.BalanceView> view = balanceStore.find(accountNumber);
+            if (view.isEmpty()) {
+                return false;
+            }
+            AccountBalanceStore.BalanceView loaded = view.get();
+            stripe.lock.lock();
+            try {
+                // After an eviction the row read may predate a flush of the evicted entry, so read it again.
+                if (stripe.evictions == evictions) {
+                    stripe.entries.putIfAbsent(accountNumber,
+                            new Entry(loaded.accountName(), loaded.email(), loaded.balance(), loaded.netDeposits()));
+                    return true;
+                }
+            } finally {
+                stripe.lock.unlock();
+            }
+        }
+    }
+
+    public Optional<Money> balanceOf(String accountNumber) {
+        if (!enabled) {
+            return Optional.empty();
+        }
+        Stripe stripe = stripeFor(accountNumber);
+        stripe.lock.lock();
+        try {
+            Entry entry = stripe.entries.get(accountNumber);
+            return entry == null ? Optional.empty() : Optional.of(Money.ofMinor(entry.balance));
+        } finally {
+            stripe.lock.unlock();
+        }
+    }
+
+    public Optional<AccountBalanceStore.BalanceTotals> totalsOf(String accountNumber) {
+        if (!enabled) {
+            return Optional.empty();
+        }
+        Stripe stripe = stripeFor(accountNumber);
+        stripe.lock.lock();
+        try {
+            Entry entry = stripe.entries.get(accountNumber);
+            return entry == null ? Optional.empty() : Optional.of(entry.totals(accountNumber));
+        } finally {
+            stripe.lock.unlock();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${banking.ledger.flush-interval-ms:200}")
+    public void flush() {
+        if (!enabled) {
+            return;
+        }
+        flushLock.lock();
+        try {
+            flushStripes();
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    private void flushStripes() {
+        for (Stripe stripe : stripes) {
+            Pending pending = stripe.drain();
+            if (pending.writes().isEmpty()) {
+                stripe.evictClean(maxEntriesPerStripe);
+                continue;
+            }
+            try {
+                transactionTemplate.executeWithoutResult(status -> {
+                    balanceStore.updateTotals(pending.writes());
+                    postingJournal.appendAll(pending.postings());
+                    outboxWriter.appendAll(pending.events());
+                });
+                pending.writes().forEach(write -> accountCache.invalidate(write.accountNumber()));
+                stripe.evictClean(maxEntriesPerStripe);
+            } catch (Exception e) {
+                log.error("Ledger flush failed for {} accounts: {}", pending.writes().size(), e.getMessage());
+                stripe.requeue(pending);
+            }
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flush();
+    }
+
+    private OutboxEvent balanceChanged(String accountNumber, Entry entry, String change, Money amount,
+                                       String counterparty) {
+        return outboxWriter.event(BalanceChangedEvent.AGGREGATE_TYPE, accountNumber, BalanceChangedEvent.TYPE,
+                new BalanceChangedEvent(accountNumber, entry.email, change, amount, Money.ofMinor(entry.balance), counterparty));
+    }
+
+    private Stripe stripeFor(String accountNumber) {
+        return stripes[Math.floorMod(accountNumber.hashCode(), stripes.length)];
+    }
+
+    public enum Status {
+        // REFUNDED: a transfer between shards whose credit failed, so its debit was returned.
+        APPLIED, NOT_FOUND, DESTINATION_NOT_FOUND, INSUFFICIENT_BALANCE, REFUNDED
+    }
+
+    public record LedgerResult(Status status, String accountName, String accountNumber, Money balance) {
+        static LedgerResult applied(String accountName, String accountNumber, Money balance) {
+            return new LedgerResult(Status.APPLIED, accountName, accountNumber, balance);
+        }
+
+        static LedgerResult notFound() {
+            return new LedgerResult(Status.NOT_FOUND, null, null, null);
+        }
+
+        static LedgerResult sourceNotFound() {
+            return notFound();
+        }
+
+        static LedgerResult destinationNotFound() {
+            return new LedgerResult(Status.DESTINATION_NOT_FOUND, null, null, null);
+        }
+
+        static LedgerResult insufficientBalance() {
+            return new LedgerResult(Status.INSUFFICIENT_BALANCE, null, null, null);
+        }
+
+        static LedgerResult refunded() {
+            return new LedgerResult(Status.REFUNDED, null, null, null);
+        }
+    }
+
+    private record Pending(List<AccountBalanceStore.BalanceTotals> writes, List<Posting> postings, List<OutboxEvent> events) {
+    }
+
+    private static final class Entry {
+        private final String accountName;
+        private final String email;
+        private long balance;
+        private long netDeposits;
+        private boolean dirty;
+
+        private Entry(String accountName, String email, Money balance, Money netDeposits) {
+            this.accountName = accountName;
+            this.email = email;
+            this.balance = balance.minorUnits();
+            this.netDeposits = netDeposits.minorUnits();
+        }
+
+        private AccountBalanceStore.BalanceTotals totals(String accountNumber) {
+            return new AccountBalanceStore.BalanceTotals(accountNumber, Money.ofMinor(balance), Money.ofMinor(netDeposits));
+        }
+    }
+
+    private static final class Stripe {
+        private final int index;
+        private final ReentrantLock lock = new ReentrantLock();
+        private final Map<String, Entry> entries = new HashMap<>();
+        private List<Posting> postings = new ArrayList<>();
+        private List<OutboxEvent> events = new ArrayList<>();
+        private long evictions;
+
+        private Stripe(int index) {
+            this.index = index;
+        }
+
+        private void record(Posting posting, OutboxEvent event) {
+            postings.add(posting);
+            events.add(event);
+        }
+
+        private Pending drain() {
+            lock.lock();
+            try {
+                List<AccountBalanceStore.BalanceTotals> writes = new ArrayList<>();
+                for (Map.Entry<String, Entry> e : entries.entrySet()) {
+                    if (e.getValue().dirty) {
+                        writes.add(e.getValue().totals(e.getKey()));
+                        e.getValue().dirty = false;
+                    }
+                }
+                Pending pending = new Pending(writes, postings, events);
+                postings = new ArrayList<>();
+                events = new ArrayList<>();
+                return pending;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        private void evictClean(int maxEntries) {
+            lock.lock();
+            try {
+                if (entries.size() > maxEntries && entries.values().removeIf(entry -> !entry.dirty)) {
+                    evictions++;
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        private void requeue(Pending failed) {
+            lock.lock();
+            try {
+                for (AccountBalanceStore.BalanceTotals write : failed.writes()) {
+                    Entry entry = entries.get(write.accountNumber());
+                    if (entry != null) {
+                        entry.dirty = true;
+                    }
+                }
+                // Failed postings and events go back ahead of newer ones to keep per-account order.
+                List<Posting> mergedPostings = new ArrayList<>(failed.postings());
+                mergedPostings.addAll(postings);
+                postings = mergedPostings;
+                List<OutboxEvent> mergedEvents = new ArrayList<>(failed.events());
+                mergedEvents.addAll(events);
+                events = mergedEvents;
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+}
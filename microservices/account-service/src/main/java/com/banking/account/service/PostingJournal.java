@@ -0,0 +1,80 @@
+package com.banking.account.service;
+
+import com.banking.account.entity.Posting;
+import com.banking.common.money.Money;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Appends credits and debits to the immutable {@code account_postings} log when event-sourced
+ * mode is on. Like outbox events, postings are written in the transaction that changes the
+ * balance, while the account's row or ledger stripe is held, so each account's postings are
+ * committed in id order. {@link BalanceProjector} folds them into snapshots.
+ */
+@Component
+public class PostingJournal {
+    private static final String INSERT_POSTING = "INSERT INTO account_postings "
+            + "(account_number, entry_type, amount, counterparty_account_number, posted_at) VALUES (?, ?, ?, ?, ?)";
+    private static final String INSERT_OPENING_SNAPSHOT = "INSERT INTO account_balance_snapshots "
+            + "(account_number, balance, last_posting_id, taken_at) VALUES (?, ?, 0, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final boolean enabled;
+
+    public PostingJournal(JdbcTemplate jdbcTemplate,
+                          @Value("${banking.postings.enabled:false}") boolean enabled) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.enabled = enabled;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public Posting posting(String accountNumber, String entryType, Money amount, String counterparty) {
+        return Posting.builder()
+                .accountNumber(accountNumber)
+                .entryType(entryType)
+                .amount(amount)
+                .counterpartyAccountNumber(counterparty)
+                .postedAt(LocalDateTime.now())
+                .build();
+    }
+
+    public void appendAll(List<Posting> postings) {
+        if (!enabled || postings.isEmpty()) {
+            return;
+        }
+        requireTransaction();
+        jdbcTemplate.batchUpdate(INSERT_POSTING, postings, postings.size(), (ps, posting) -> {
+            ps.setString(1, posting.getAccountNumber());
+            ps.setString(2, posting.getEntryType());
+            ps.setBigDecimal(3, posting.getAmount().toBigDecimal());
+            ps.setString(4, posting.getCounterpartyAccountNumber());
+            ps.setTimestamp(5, Timestamp.valueOf(posting.getPostedAt()));
+        });
+    }
+
+    /**
+     * Records the opening balance of a new account as its first snapshot.
+     */
+    public void open(String accountNumber, Money balance) {
+        if (!enabled) {
+            return;
+        }
+        requireTransaction();
+        jdbcTemplate.update(INSERT_OPENING_SNAPSHOT, accountNumber, balance.toBigDecimal(), Timestamp.valueOf(LocalDateTime.now()));
+    }
+
+    private void requireTransaction() {
+        if (!TransactionSynchronizationManager.isActualTransactionActive()) {
+            throw new IllegalStateException("Postings must be written inside the transaction that changes the balance");
+        }
+    }
+}
@@ -0,0 +1,161 @@
+package com.banking.account.service;
+
+import com.banking.account.dto.AccountRequest;
+import com.banking.account.dto.AccountResponse;
+import com.banking.account.dto.BatchTransferResponse;
+import com.banking.account.dto.TransferRequest;
+import com.banking.common.money.Money;
+import com.banking.common.sharding.ShardRouter;
+import org.junit.jupiter.api.Test;
+import org.mockito.stubbing.Answer;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.dao.DataAccessResourceFailureException;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+
+/**
+ * Runs transfers across two H2 shards, loses a shard partway through, and retries under the same
+ * idempotency key to check that no account is debited or credited twice.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE, properties = {
+        "spring.datasource.url=jdbc:h2:mem:shard0;DB_CLOSE_DELAY=-1",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.cloud.discovery.enabled=false",
+        "eureka.client.enabled=false",
+        "banking.sharding.urls=jdbc:h2:mem:shard0;DB_CLOSE_DELAY=-1,jdbc:h2:mem:shard1;DB_CLOSE_DELAY=-1",
+        "banking.outbox.relay.enabled=false",
+        "banking.audit.enabled=false"
+})
+class ShardedTransferRetryTest {
+    private static final AtomicInteger ACCOUNTS = new AtomicInteger();
+
+    @Autowired
+    private AccountService accountService;
+
+    @SpyBean
+    private ShardRouter shardRouter;
+
+    @Test
+    void creditCommittedBeforeShardLostIsNotRepeatedOnRetry() {
+        String source = accountOnShard(0);
+        String destination = accountOnShard(1);
+        doAnswer(failOnce(true)).when(shardRouter).onShardOf(eq(destination), any());
+        String key = UUID.randomUUID().toString();
+
+        AccountResponse first = accountService.transfer(transfer(source, destination, "25"), key);
+        AccountResponse retried = accountService.transfer(transfer(source, destination, "25"), key);
+
+        assertThat(first.getResponseCode()).isEqualTo("200");
+        assertThat(retried).isEqualTo(first);
+        assertThat(balanceOf(source)).isEqualTo(Money.valueOf("75"));
+        assertThat(balanceOf(destination)).isEqualTo(Money.valueOf("125"));
+    }
+
+    @Test
+    void creditLostWithShardIsRefundedAndNotRepeatedOnRetry() {
+        String source = accountOnShard(0);
+        String destination = accountOnShard(1);
+        doAnswer(failOnce(false)).when(shardRouter).onShardOf(eq(destination), any());
+        String key = UUID.randomUUID().toString();
+
+        AccountResponse first = accountService.transfer(transfer(source, destination, "25"), key);
+        AccountResponse retried = accountService.transfer(transfer(source, destination, "25"), key);
+
+        assertThat(first.getResponseCode()).isEqualTo("422");
+        assertThat(retried).isEqualTo(first);
+        assertThat(balanceOf(source)).isEqualTo(Money.valueOf("100"));
+        assertThat(balanceOf(destination)).isEqualTo(Money.valueOf("100"));
+    }
+
+    @Test
+    void batchWithFailedShardReplaysCommittedShardsOnRetry() {
+        String first = accountOnShard(0);
+        String second = accountOnShard(0);
+        String third = accountOnShard(1);
+        String fourth = accountOnShard(1);
+        // Shard 0 settles and commits before shard 1 is reached.
+        doAnswer(failOnce(false)).when(shardRouter).onShard(eq(1), any());
+        List<TransferRequest> transfers = List.of(
+                transfer(first, second, "10"),
+                transfer(third, fourth, "20"),
+                transfer(second, third, "5"));
+        String key = UUID.randomUUID().toString();
+
+        BatchTransferResponse response = accountService.transferBatch(transfers, key);
+        BatchTransferResponse retried = accountService.transferBatch(transfers, key);
+
+        assertThat(response.getResponseCode()).isEqualTo("200");
+        assertThat(response.getResults()).extracting(BatchTransferResponse.Result::getResponseCode)
+                .containsExactly("200", "500", "200");
+        assertThat(retried).isEqualTo(response);
+        assertThat(balanceOf(first)).isEqualTo(Money.valueOf("90"));
+        assertThat(balanceOf(second)).isEqualTo(Money.valueOf("105"));
+        assertThat(balanceOf(third)).isEqualTo(Money.valueOf("105"));
+        assertThat(balanceOf(fourth)).isEqualTo(Money.valueOf("100"));
+    }
+
+    /**
+     * Fails the first stubbed call made by the test thread, after letting it through when
+     * {@code afterCommit} is set; calls from scheduled jobs and later calls run normally.
+     */
+    private Answer<Object> failOnce(boolean afterCommit) {
+        Thread caller = Thread.currentThread();
+        AtomicBoolean failed = new AtomicBoolean();
+        return invocation -> {
+            if (Thread.currentThread() != caller || failed.getAndSet(true)) {
+                return invocation.callRealMethod();
+            }
+            if (afterCommit) {
+                invocation.callRealMethod();
+            }
+            throw new DataAccessResourceFailureException("Connection to shard lost");
+        };
+    }
+
+    private String accountOnShard(int shard) {
+        while (true) {
+            String accountNumber = accountService.createAccount(account()).getAccountInfo().getAccountNumber();
+            if (shardRouter.shardOf(accountNumber) == shard) {
+                accountService.updateBalance(accountNumber, Money.valueOf("100"), "CREDIT");
+                return accountNumber;
+            }
+        }
+    }
+
+    private Money balanceOf(String accountNumber) {
+        return accountService.getAccountByNumber(accountNumber).getAccountInfo().getAccountBalance();
+    }
+
+    private static AccountRequest account() {
+        AccountRequest request = new AccountRequest();
+        request.setFirstName("Test");
+        request.setLastName("Holder");
+        request.setGender("F");
+        request.setAddress("1 Test Street");
+        request.setEmail("holder" + ACCOUNTS.incrementAndGet() + "@example.com");
+        request.setPhoneNumber("+2348012345678");
+        return request;
+    }
+
+    private static TransferRequest transfer(String source, String destination, String amount) {
+        TransferRequest request = new TransferRequest();
+        request.setSourceAccountNumber(source);
+        request.setDestinationAccountNumber(destination);
+        request.setAmount(Money.valueOf(amount));
+        return request;
+    }
+}
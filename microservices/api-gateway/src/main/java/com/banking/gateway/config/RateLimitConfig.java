@@ -0,0 +1,39 @@
+package com.banking.gateway.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.gateway.filter.ratelimit.KeyResolver;
+import org.springframework.cloud.gateway.support.ipresolver.RemoteAddressResolver;
+import org.springframework.cloud.gateway.support.ipresolver.XForwardedRemoteAddressResolver;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import reactor.core.publisher.Mono;
+
+import java.net.InetSocketAddress;
+import java.util.Set;
+
+@Configuration
+public class RateLimitConfig {
+    public static final String API_KEY_HEADER = "X-API-Key";
+    public static final String ANONYMOUS_KEY = "anonymous";
+
+    // Clients are identified by their authenticated principal or a configured API key. Requests
+    // without a key fall back to the client address, taken from X-Forwarded-For only as far as the
+    // trusted proxies appended it. Unknown keys all share one bucket, so inventing keys gains nothing.
+    @Bean
+    public KeyResolver clientKeyResolver(@Value("${banking.gateway.rate-limit.api-keys:}") Set<String> apiKeys,
+                                         @Value("${banking.gateway.rate-limit.trusted-proxy-hops:0}") int trustedProxyHops) {
+        RemoteAddressResolver addressResolver = trustedProxyHops > 0
+                ? XForwardedRemoteAddressResolver.maxTrustedIndex(trustedProxyHops)
+                : new RemoteAddressResolver() { };
+        return exchange -> exchange.getPrincipal()
+                .map(principal -> "user:" + principal.getName())
+                .switchIfEmpty(Mono.fromSupplier(() -> {
+                    String apiKey = exchange.getRequest().getHeaders().getFirst(API_KEY_HEADER);
+                    if (apiKey != null && !apiKey.isBlank()) {
+                        return apiKeys.contains(apiKey) ? "key:" + apiKey : ANONYMOUS_KEY;
+                    }
+                    InetSocketAddress remoteAddress = addressResolver.resolve(exchange);
+                    return "ip:" + (remoteAddress != null ? remoteAddress.getHostString() : "unknown");
+                }));
+    }
+}
@@ -0,0 +1,119 @@
+package com.banking.gateway.filter;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.core.Ordered;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs first on every exchange. Assigns or propagates the {@code X-Correlation-Id} header and
+ * records {@code gateway.route.latency} per route and upstream instance as a percentile histogram.
+ * Requests slower than {@code banking.gateway.slow-request.threshold} are logged at the configured
+ * sample rate.
+ */
+@Component
+public class RequestMetricsFilter implements GlobalFilter, Ordered {
+    public static final String CORRELATION_ID_HEADER = "X-Correlation-Id";
+
+    private static final Logger log = LoggerFactory.getLogger(RequestMetricsFilter.class);
+
+    private final MeterRegistry meterRegistry;
+    private final long slowThresholdNanos;
+    private final double slowSampleRate;
+    private final Map<TimerKey, Timer> timers = new ConcurrentHashMap<>();
+
+    public RequestMetricsFilter(MeterRegistry meterRegistry,
+                                @Value("${banking.gateway.slow-request.threshold:500ms}") Duration slowThreshold,
+                                @Value("${banking.gateway.slow-request.sample-rate:1.0}") double slowSampleRate) {
+        this.meterRegistry = meterRegistry;
+        this.slowThresholdNanos = slowThreshold.toNanos();
+        this.slowSampleRate = slowSampleRate;
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        long start = System.nanoTime();
+        String incoming = exchange.getRequest().getHeaders().getFirst(CORRELATION_ID_HEADER);
+        String correlationId = incoming == null || incoming.isBlank() ? UUID.randomUUID().toString() : incoming;
+        ServerHttpRequest request = exchange.getRequest().mutate()
+                .headers(headers -> headers.set(CORRELATION_ID_HEADER, correlationId))
+                .build();
+        ServerWebExchange tracked = exchange.mutate().request(request).build();
+        tracked.getResponse().getHeaders().set(CORRELATION_ID_HEADER, correlationId);
+        return chain.filter(tracked).doFinally(signal -> record(tracked, correlationId, System.nanoTime() - start));
+    }
+
+    private void record(ServerWebExchange exchange, String correlationId, long elapsedNanos) {
+        Route route = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR);
+        String routeId = route != null ? route.getId() : "none";
+        String instance = instanceOf(exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_REQUEST_URL_ATTR));
+        HttpStatusCode status = exchange.getResponse().getStatusCode();
+        String outcome = status == null ? "UNKNOWN" : outcomeOf(status);
+        timers.computeIfAbsent(new TimerKey(routeId, instance, outcome), this::register)
+                .record(elapsedNanos, TimeUnit.NANOSECONDS);
+
+        if (elapsedNanos >= slowThresholdNanos && ThreadLocalRandom.current().nextDouble() < slowSampleRate) {
+            log.warn("Slow request {} {} route={} instance={} status={} took {}ms correlationId={}",
+                    exchange.getRequest().getMethod(), exchange.getRequest().getPath(), routeId, instance,
+                    status == null ? "-" : status.value(), TimeUnit.NANOSECONDS.toMillis(elapsedNanos), correlationId);
+        }
+    }
+
+    private Timer register(TimerKey key) {
+        return Timer.builder("gateway.route.latency")
+                .tag("route", key.route())
+                .tag("instance", key.instance())
+                .tag("outcome", key.outcome())
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+
+    // Cached and rejected requests never reach an upstream instance.
+    private static String instanceOf(URI requestUrl) {
+        if (requestUrl == null || requestUrl.getHost() == null || "lb".equals(requestUrl.getScheme())) {
+            return "none";
+        }
+        return requestUrl.getHost() + ":" + requestUrl.getPort();
+    }
+
+    private static String outcomeOf(HttpStatusCode status) {
+        if (status.is2xxSuccessful()) {
+            return "SUCCESS";
+        }
+        if (status.is4xxClientError()) {
+            return "CLIENT_ERROR";
+        }
+        if (status.is5xxServerError()) {
+            return "SERVER_ERROR";
+        }
+        return status.is3xxRedirection() ? "REDIRECTION" : "INFORMATIONAL";
+    }
+
+    @Override
+    public int getOrder() {
+        return Ordered.HIGHEST_PRECEDENCE;
+    }
+
+    private record TimerKey(String route, String instance, String outcome) {
+    }
+}
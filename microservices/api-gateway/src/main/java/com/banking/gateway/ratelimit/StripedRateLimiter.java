@@ -0,0 +1,137 @@
+package com.banking.gateway.ratelimit;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.gateway.filter.ratelimit.AbstractRateLimiter;
+import org.springframework.cloud.gateway.support.ConfigurationService;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * In-memory token-bucket rate limiter for {@code RequestRateLimiter} routes. Buckets are keyed
+ * by route and client and spread over lock stripes, so concurrent requests only contend when
+ * they hash to the same stripe. Each stripe keeps at most its share of
+ * {@code banking.gateway.rate-limit.max-clients}, evicting the least recently seen client.
+ * Limits are per gateway instance.
+ */
+@Component
+public class StripedRateLimiter extends AbstractRateLimiter<StripedRateLimiter.Config> {
+    public static final String CONFIGURATION_PROPERTY_NAME = "striped-rate-limiter";
+
+    private static final String REMAINING_HEADER = "X-RateLimit-Remaining";
+    private static final String REPLENISH_RATE_HEADER = "X-RateLimit-Replenish-Rate";
+    private static final String BURST_CAPACITY_HEADER = "X-RateLimit-Burst-Capacity";
+
+    private final Config defaultConfig;
+    private final Stripe[] stripes;
+
+    public StripedRateLimiter(ConfigurationService configurationService,
+                              @Value("${banking.gateway.rate-limit.replenish-rate:100}") int replenishRate,
+                              @Value("${banking.gateway.rate-limit.burst-capacity:200}") int burstCapacity,
+                              @Value("${banking.gateway.rate-limit.stripes:64}") int stripeCount,
+                              @Value("${banking.gateway.rate-limit.max-clients:100000}") int maxClients) {
+        super(Config.class, CONFIGURATION_PROPERTY_NAME, configurationService);
+        this.defaultConfig = new Config().setReplenishRate(replenishRate).setBurstCapacity(burstCapacity);
+        this.stripes = new Stripe[Math.max(1, stripeCount)];
+        int maxBucketsPerStripe = Math.max(1, maxClients / stripes.length);
+        for (int i = 0; i < stripes.length; i++) {
+            stripes[i] = new Stripe(maxBucketsPerStripe);
+        }
+    }
+
+    @Override
+    public Mono<Response> isAllowed(String routeId, String id) {
+        Config config = getConfig().getOrDefault(routeId, defaultConfig);
+        String key = routeId + ':' + id;
+        Stripe stripe = stripes[Math.floorMod(key.hashCode(), stripes.length)];
+        long now = System.nanoTime();
+        boolean allowed;
+        long remaining;
+        stripe.lock.lock();
+        try {
+            Bucket bucket = stripe.buckets.computeIfAbsent(key, k -> new Bucket(config.getBurstCapacity(), now));
+            allowed = bucket.tryConsume(config, now);
+            remaining = (long) bucket.tokens;
+        } finally {
+            stripe.lock.unlock();
+        }
+        return Mono.just(new Response(allowed, headers(config, remaining)));
+    }
+
+    private static Map<String, String> headers(Config config, long remaining) {
+        return Map.of(REMAINING_HEADER, Long.toString(remaining),
+                REPLENISH_RATE_HEADER, Integer.toString(config.getReplenishRate()),
+                BURST_CAPACITY_HEADER, Integer.toString(config.getBurstCapacity()));
+    }
+
+    public static class Config {
+        private int replenishRate;
+        private int burstCapacity;
+        private int requestedTokens = 1;
+
+        public int getReplenishRate() {
+            return replenishRate;
+        }
+
+        public Config setReplenishRate(int replenishRate) {
+            this.replenishRate = replenishRate;
+            return this;
+        }
+
+        public int getBurstCapacity() {
+            return burstCapacity;
+        }
+
+        public Config setBurstCapacity(int burstCapacity) {
+            this.burstCapacity = burstCapacity;
+            return this;
+        }
+
+        public int getRequestedTokens() {
+            return requestedTokens;
+        }
+
+        public Config setRequestedTokens(int requestedTokens) {
+            this.requestedTokens = requestedTokens;
+            return this;
+        }
+    }
+
+    private static final class Bucket {
+        private double tokens;
+        private long refilledAt;
+
+        private Bucket(double tokens, long now) {
+            this.tokens = tokens;
+            this.refilledAt = now;
+        }
+
+        private boolean tryConsume(Config config, long now) {
+            double refill = (now - refilledAt) * config.getReplenishRate() / 1_000_000_000d;
+            tokens = Math.min(config.getBurstCapacity(), tokens + refill);
+            refilledAt = now;
+            if (tokens < config.getRequestedTokens()) {
+                return false;
+            }
+            tokens -= config.getRequestedTokens();
+            return true;
+        }
+    }
+
+    private static final class Stripe {
+        private final ReentrantLock lock = new ReentrantLock();
+        private final Map<String, Bucket> buckets;
+
+        private Stripe(int maxBuckets) {
+            this.buckets = new LinkedHashMap<>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, Bucket> eldest) {
+                    return size() > maxBuckets;
+                }
+            };
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package com.banking.audit.config;
+
+import com.banking.audit.journal.AuditJournal;
+import com.banking.audit.repository.AuditLogBatchWriter;
+import com.banking.audit.repository.AuditLogSink;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+@Configuration
+@Slf4j
+public class AuditStorageConfig {
+
+    @Bean(destroyMethod = "close")
+    @ConditionalOnProperty(name = "banking.audit.storage", havingValue = "journal")
+    public AuditJournal auditJournal(@Value("${banking.audit.journal.directory:audit-journal}") Path directory,
+                                     @Value("${banking.audit.journal.segment-size:64MB}") DataSize segmentSize,
+                                     @Value("${banking.audit.journal.fsync-interval-ms:50}") long fsyncIntervalMs)
+            throws IOException {
+        return new AuditJournal(directory, Math.toIntExact(segmentSize.toBytes()), fsyncIntervalMs);
+    }
+
+    @Bean
+    public AuditLogSink auditLogSink(AuditLogBatchWriter databaseWriter,
+                                     ObjectProvider<AuditJournal> journalProvider,
+                                     @Value("${banking.audit.journal.index-in-database:false}") boolean indexInDatabase) {
+        AuditJournal journal = journalProvider.getIfAvailable();
+        if (journal == null) {
+            return databaseWriter::writeAll;
+        }
+        if (!indexInDatabase) {
+            return journal::appendAll;
+        }
+        return auditLogs -> {
+            journal.appendAll(auditLogs);
+            // The journal is the system of record; the table is a best-effort secondary index.
+            try {
+                databaseWriter.writeAll(auditLogs);
+            } catch (Exception e) {
+                log.warn("Failed to index {} journaled audit events: {}", auditLogs.size(), e.getMessage());
+            }
+        };
+    }
+}
@@ -0,0 +1,75 @@
+package com.banking.audit.controller;
+
+import com.banking.audit.dto.AuditLogRequest;
+import com.banking.audit.dto.AuditResponse;
+import com.banking.audit.dto.DomainEvent;
+import com.banking.audit.entity.AuditLog;
+import com.banking.audit.service.AuditIngestionService;
+import com.banking.audit.service.AuditReplayService;
+import com.banking.audit.service.DomainEventConsumer;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Ingests audit records and domain events from the other services and replays the journal.
+ * Not routed by the gateway.
+ */
+@RestController
+@RequestMapping("/internal/audit")
+@RequiredArgsConstructor
+public class AuditController {
+    private final AuditIngestionService auditIngestionService;
+    private final AuditReplayService auditReplayService;
+    private final DomainEventConsumer domainEventConsumer;
+
+    @PostMapping("/logs")
+    public ResponseEntity<AuditResponse> ingest(@Valid @RequestBody AuditLogRequest request) {
+        boolean accepted = auditIngestionService.submit(request);
+        return respond(accepted ? 1 : 0, 1);
+    }
+
+    @PostMapping("/logs/batch")
+    public ResponseEntity<AuditResponse> ingestBatch(@RequestBody @NotEmpty List<@Valid AuditLogRequest> requests) {
+        int accepted = auditIngestionService.submitAll(requests);
+        return respond(accepted, requests.size());
+    }
+
+    @PostMapping("/events")
+    public ResponseEntity<AuditResponse> consumeEvents(@RequestBody List<DomainEvent> events) {
+        return respond(domainEventConsumer.consume(events), events.size());
+    }
+
+    @GetMapping("/logs/replay")
+    public ResponseEntity<List<AuditLog>> replay(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(defaultValue = "1000") int limit) {
+        return auditReplayService.replay(from, to, Math.min(Math.max(limit, 1), 10000))
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    private ResponseEntity<AuditResponse> respond(int accepted, int submitted) {
+        if (accepted == submitted) {
+            return ResponseEntity.status(HttpStatus.ACCEPTED).body(AuditResponse.builder()
+                    .responseCode("202")
+                    .responseMessage("Audit events accepted")
+                    .accepted(accepted)
+                    .build());
+        }
+        // Backpressure: the caller may retry the events after the first rejected one.
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(AuditResponse.builder()
+                .responseCode("503")
+                .responseMessage("Audit queue is full")
+                .accepted(accepted)
+                .build());
+    }
+}
@@ -0,0 +1,22 @@
+package com.banking.audit.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+@Data
+public class AuditLogRequest {
+    @NotBlank(message = "Action is required")
+    private String action;
+
+    @NotBlank(message = "Entity type is required")
+    private String entityType;
+
+    private String entityId;
+    private String userId;
+    private String details;
+    private String ipAddress;
+    private String userAgent;
+    private LocalDateTime timestamp;
+}
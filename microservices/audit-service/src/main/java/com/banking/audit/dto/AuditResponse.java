@@ -0,0 +1,12 @@
+package com.banking.audit.dto;
+
+import lombok.Builder;
+import lombok.Data;
+
+@Data
+@Builder
+public class AuditResponse {
+    private String responseCode;
+    private String responseMessage;
+    private int accepted;
+}
@@ -0,0 +1,16 @@
+package com.banking.audit.dto;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+@Data
+public class DomainEvent {
+    private String eventId;
+    private String eventType;
+    private String aggregateType;
+    private String aggregateId;
+    private LocalDateTime occurredAt;
+    private JsonNode payload;
+}
@@ -0,0 +1,308 @@
+package com.banking.audit.journal;
+
+import com.banking.audit.entity.AuditLog;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only audit journal made of fixed-size memory-mapped segment files.
+ *
+ * <p>Each record is a frame of {@code [int length][int crc32][payload]}; the payload holds the event
+ * timestamp (epoch millis, UTC) followed by length-prefixed UTF-8 fields. A zero length marks the end
+ * of a segment's data. A new segment is started when a frame no longer fits. With a zero
+ * {@code fsyncIntervalMs} every appended batch is forced to disk; otherwise a background task forces
+ * the active segment on that interval (group commit).
+ */
+@Slf4j
+public class AuditJournal implements Closeable {
+    private static final int FRAME_HEADER_BYTES = 8;
+    private static final String SEGMENT_PREFIX = "audit-";
+    private static final String SEGMENT_SUFFIX = ".seg";
+
+    private final Path directory;
+    private final int segmentSize;
+    private final long fsyncIntervalMs;
+    private final ScheduledExecutorService fsyncScheduler;
+    private final CRC32 crc = new CRC32();
+    private ByteBuffer scratch = ByteBuffer.allocate(4096);
+
+    private long activeSegmentIndex;
+    private FileChannel activeChannel;
+    private MappedByteBuffer activeBuffer;
+    private volatile int committedPosition;
+    private boolean dirty;
+
+    public AuditJournal(Path directory, int segmentSize, long fsyncIntervalMs) throws IOException {
+        this.directory = directory;
+        this.segmentSize = segmentSize;
+        this.fsyncIntervalMs = fsyncIntervalMs;
+        Files.createDirectories(directory);
+
+        List<Path> segments = listSegments();
+        if (segments.isEmpty()) {
+            openSegment(0);
+        } else {
+            Path last = segments.get(segments.size() - 1);
+            openSegment(segmentIndex(last));
+            committedPosition = recoverEndPosition(activeBuffer);
+            activeBuffer.position(committedPosition);
+            log.info("Audit journal recovered segment {} at offset {}", last.getFileName(), committedPosition);
+        }
+
+        if (fsyncIntervalMs > 0) {
+            fsyncScheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread thread = new Thread(r, "audit-journal-fsync");
+                thread.setDaemon(true);
+                return thread;
+            });
+            fsyncScheduler.scheduleWithFixedDelay(this::force, fsyncIntervalMs, fsyncIntervalMs, TimeUnit.MILLISECONDS);
+        } else {
+            fsyncScheduler = null;
+        }
+    }
+
+    public synchronized void appendAll(List<AuditLog> auditLogs) {
+        for (AuditLog auditLog : auditLogs) {
+            append(auditLog);
+        }
+        committedPosition = activeBuffer.position();
+        dirty = true;
+        if (fsyncIntervalMs <= 0) {
+            force();
+        }
+    }
+
+    private void append(AuditLog auditLog) {
+        ByteBuffer payload = encode(auditLog);
+        int frameBytes = FRAME_HEADER_BYTES + payload.remaining();
+        if (frameBytes + Integer.BYTES > segmentSize) {
+            throw new IllegalArgumentException("Audit record of " + frameBytes + " bytes exceeds the segment size");
+        }
+        // Keep room for the terminating zero length so scanners always find the end of a segment.
+        if (activeBuffer.remaining() < frameBytes + Integer.BYTES) {
+            rotate();
+        }
+        crc.reset();
+        crc.update(payload.duplicate());
+        activeBuffer.putInt(payload.remaining());
+        activeBuffer.putInt((int) crc.getValue());
+        activeBuffer.put(payload);
+    }
+
+    public synchronized void force() {
+        if (dirty) {
+            activeBuffer.force();
+            dirty = false;
+        }
+    }
+
+    /**
+     * Replays events whose timestamp falls within {@code [from, to]} in append order until the
+     * visitor returns {@code false}.
+     */
+    public void scan(LocalDateTime from, LocalDateTime to, Predicate<AuditLog> visitor) {
+        long fromMillis = from == null ? Long.MIN_VALUE : toEpochMillis(from);
+        long toMillis = to == null ? Long.MAX_VALUE : toEpochMillis(to);
+        long activeIndex;
+        int activeLimit;
+        synchronized (this) {
+            activeIndex = activeSegmentIndex;
+            activeLimit = committedPosition;
+        }
+        try {
+            for (Path segment : listSegments()) {
+                long index = segmentIndex(segment);
+                if (index > activeIndex) {
+                    break;
+                }
+                try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.READ)) {
+                    MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+                    int limit = index == activeIndex ? activeLimit : buffer.capacity();
+                    if (!scanSegment(buffer, limit, fromMillis, toMillis, visitor)) {
+                        return;
+                    }
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private boolean scanSegment(ByteBuffer buffer, int limit, long fromMillis, long toMillis, Predicate<AuditLog> visitor) {
+        CRC32 checksum = new CRC32();
+        while (buffer.position() + FRAME_HEADER_BYTES <= limit) {
+            int length = buffer.getInt();
+            if (length <= 0 || buffer.position() + Integer.BYTES + length > limit) {
+                return true;
+            }
+            int expectedCrc = buffer.getInt();
+            ByteBuffer payload = buffer.slice(buffer.position(), length);
+            checksum.reset();
+            checksum.update(payload.duplicate());
+            if ((int) checksum.getValue() != expectedCrc) {
+                log.warn("Audit journal frame failed its checksum; stopping segment scan");
+                return true;
+            }
+            long timestamp = payload.getLong(0);
+            if (timestamp >= fromMillis && timestamp <= toMillis && !visitor.test(decode(payload))) {
+                return false;
+            }
+            buffer.position(buffer.position() + length);
+        }
+        return true;
+    }
+
+    private void rotate() {
+        activeBuffer.putInt(0);
+        activeBuffer.force();
+        try {
+            activeChannel.close();
+            openSegment(activeSegmentIndex + 1);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        committedPosition = 0;
+    }
+
+    private void openSegment(long index) throws IOException {
+        Path file = directory.resolve(String.format("%s%020d%s", SEGMENT_PREFIX, index, SEGMENT_SUFFIX));
+        activeChannel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        activeBuffer = activeChannel.map(FileChannel.MapMode.READ_WRITE, 0, segmentSize);
+        activeSegmentIndex = index;
+    }
+
+    private int recoverEndPosition(MappedByteBuffer buffer) {
+        ByteBuffer view = buffer.duplicate();
+        CRC32 checksum = new CRC32();
+        int position = 0;
+        while (position + FRAME_HEADER_BYTES <= view.capacity()) {
+            int length = view.getInt(position);
+            if (length <= 0 || position + FRAME_HEADER_BYTES + length > view.capacity()) {
+                break;
+            }
+            checksum.reset();
+            checksum.update(view.slice(position + FRAME_HEADER_BYTES, length));
+            if ((int) checksum.getValue() != view.getInt(position + Integer.BYTES)) {
+                // Torn write from a crash: everything from here on is discarded.
+                break;
+            }
+            position += FRAME_HEADER_BYTES + length;
+        }
+        return position;
+    }
+
+    private ByteBuffer encode(AuditLog auditLog) {
+        scratch.clear();
+        LocalDateTime timestamp = auditLog.getTimestamp() != null ? auditLog.getTimestamp() : LocalDateTime.now();
+        putLong(toEpochMillis(timestamp));
+        putString(auditLog.getAction());
+        putString(auditLog.getEntityType());
+        putString(auditLog.getEntityId());
+        putString(auditLog.getUserId());
+        putString(auditLog.getDetails());
+        putString(auditLog.getIpAddress());
+        putString(auditLog.getUserAgent());
+        return scratch.flip();
+    }
+
+    private AuditLog decode(ByteBuffer payload) {
+        ByteBuffer in = payload.duplicate();
+        LocalDateTime timestamp = LocalDateTime.ofInstant(Instant.ofEpochMilli(in.getLong()), ZoneOffset.UTC);
+        return AuditLog.builder()
+                .timestamp(timestamp)
+                .action(getString(in))
+                .entityType(getString(in))
+                .entityId(getString(in))
+                .userId(getString(in))
+                .details(getString(in))
+                .ipAddress(getString(in))
+                .userAgent(getString(in))
+                .build();
+    }
+
+    private void putLong(long value) {
+        ensureCapacity(Long.BYTES);
+        scratch.putLong(value);
+    }
+
+    private void putString(String value) {
+        if (value == null) {
+            ensureCapacity(Integer.BYTES);
+            scratch.putInt(-1);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        ensureCapacity(Integer.BYTES + bytes.length);
+        scratch.putInt(bytes.length);
+        scratch.put(bytes);
+    }
+
+    private static String getString(ByteBuffer in) {
+        int length = in.getInt();
+        if (length < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        in.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private void ensureCapacity(int bytes) {
+        if (scratch.remaining() < bytes) {
+            ByteBuffer larger = ByteBuffer.allocate(Math.max(scratch.capacity() * 2, scratch.position() + bytes));
+            scratch.flip();
+            larger.put(scratch);
+            scratch = larger;
+        }
+    }
+
+    private List<Path> listSegments() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files
+                    .filter(p -> {
+                        String name = p.getFileName().toString();
+                        return name.startsWith(SEGMENT_PREFIX) && name.endsWith(SEGMENT_SUFFIX);
+                    })
+                    .sorted()
+                    .toList();
+        }
+    }
+
+    private static long segmentIndex(Path segment) {
+        String name = segment.getFileName().toString();
+        return Long.parseLong(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length()));
+    }
+
+    private static long toEpochMillis(LocalDateTime timestamp) {
+        return timestamp.toInstant(ZoneOffset.UTC).toEpochMilli();
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        if (fsyncScheduler != null) {
+            fsyncScheduler.shutdown();
+        }
+        force();
+        activeChannel.close();
+    }
+}
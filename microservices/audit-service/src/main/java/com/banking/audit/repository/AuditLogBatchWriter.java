@@ -0,0 +1,32 @@
+package com.banking.audit.repository;
+
+import com.banking.audit.entity.AuditLog;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.util.List;
+
+@Repository
+@RequiredArgsConstructor
+public class AuditLogBatchWriter {
+    // IDENTITY ids stop Hibernate from batching inserts, so audit rows go through plain JDBC batches.
+    private static final String INSERT_AUDIT_LOG = "INSERT INTO audit_logs (action, entity_type, entity_id, " +
+            "user_id, details, ip_address, user_agent, timestamp) VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public void writeAll(List<AuditLog> auditLogs) {
+        jdbcTemplate.batchUpdate(INSERT_AUDIT_LOG, auditLogs, auditLogs.size(), (ps, auditLog) -> {
+            ps.setString(1, auditLog.getAction());
+            ps.setString(2, auditLog.getEntityType());
+            ps.setString(3, auditLog.getEntityId());
+            ps.setString(4, auditLog.getUserId());
+            ps.setString(5, auditLog.getDetails());
+            ps.setString(6, auditLog.getIpAddress());
+            ps.setString(7, auditLog.getUserAgent());
+            ps.setTimestamp(8, Timestamp.valueOf(auditLog.getTimestamp()));
+        });
+    }
+}
@@ -0,0 +1,10 @@
+package com.banking.audit.repository;
+
+import com.banking.audit.entity.AuditLog;
+
+import java.util.List;
+
+@FunctionalInterface
+public interface AuditLogSink {
+    void writeAll(List<AuditLog> auditLogs);
+}
@@ -0,0 +1,162 @@
+package com.banking.audit.service;
+
+import com.banking.audit.dto.AuditLogRequest;
+import com.banking.audit.entity.AuditLog;
+import com.banking.audit.repository.AuditLogSink;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Accepts audit events into a bounded in-process queue and drains them to the database in
+ * batches of up to {@code batch-size} events, or whatever arrived within {@code flush-interval-ms}.
+ * A full queue rejects new events instead of blocking callers.
+ */
+@Service
+@Slf4j
+public class AuditIngestionService {
+    private static final int MAX_WRITE_ATTEMPTS = 3;
+
+    private final AuditLogSink auditLogSink;
+    private final BlockingQueue<AuditLog> queue;
+    private final int batchSize;
+    private final long flushIntervalNanos;
+    private final Counter acceptedCounter;
+    private final Counter rejectedCounter;
+    private final Counter writtenCounter;
+    private final Counter failedCounter;
+    private final Timer flushTimer;
+    private final Thread drainer;
+    private volatile boolean running = true;
+
+    public AuditIngestionService(AuditLogSink auditLogSink,
+                                 MeterRegistry meterRegistry,
+                                 @Value("${banking.audit.ingest.queue-capacity:50000}") int queueCapacity,
+                                 @Value("${banking.audit.ingest.batch-size:500}") int batchSize,
+                                 @Value("${banking.audit.ingest.flush-interval-ms:100}") long flushIntervalMs) {
+        this.auditLogSink = auditLogSink;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.batchSize = Math.max(1, batchSize);
+        this.flushIntervalNanos = TimeUnit.MILLISECONDS.toNanos(flushIntervalMs);
+        Gauge.builder("audit.ingest.queue.depth", queue, BlockingQueue::size).register(meterRegistry);
+        Gauge.builder("audit.ingest.queue.remaining", queue, BlockingQueue::remainingCapacity).register(meterRegistry);
+        this.acceptedCounter = meterRegistry.counter("audit.ingest.accepted");
+        this.rejectedCounter = meterRegistry.counter("audit.ingest.rejected");
+        this.writtenCounter = meterRegistry.counter("audit.ingest.written");
+        this.failedCounter = meterRegistry.counter("audit.ingest.failed");
+        this.flushTimer = meterRegistry.timer("audit.ingest.flush");
+        this.drainer = new Thread(this::drainLoop, "audit-ingest-drainer");
+        this.drainer.setDaemon(true);
+    }
+
+    @PostConstruct
+    public void start() {
+        drainer.start();
+    }
+
+    public boolean submit(AuditLogRequest request) {
+        if (queue.offer(toAuditLog(request))) {
+            acceptedCounter.increment();
+            return true;
+        }
+        rejectedCounter.increment();
+        return false;
+    }
+
+    public int submitAll(List<AuditLogRequest> requests) {
+        int accepted = 0;
+        for (AuditLogRequest request : requests) {
+            if (!submit(request)) {
+                rejectedCounter.increment(requests.size() - accepted - 1.0);
+                break;
+            }
+            accepted++;
+        }
+        return accepted;
+    }
+
+    private void drainLoop() {
+        List<AuditLog> batch = new ArrayList<>(batchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                AuditLog first = queue.poll(flushIntervalNanos, TimeUnit.NANOSECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                long deadline = System.nanoTime() + flushIntervalNanos;
+                while (batch.size() < batchSize) {
+                    queue.drainTo(batch, batchSize - batch.size());
+                    long remaining = deadline - System.nanoTime();
+                    if (batch.size() >= batchSize || remaining <= 0) {
+                        break;
+                    }
+                    AuditLog next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+                write(batch);
+            } catch (InterruptedException e) {
+                if (!running) {
+                    queue.drainTo(batch);
+                    write(batch);
+                    return;
+                }
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void write(List<AuditLog> batch) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        for (int attempt = 1; attempt <= MAX_WRITE_ATTEMPTS; attempt++) {
+            try {
+                flushTimer.record(() -> auditLogSink.writeAll(batch));
+                writtenCounter.increment(batch.size());
+                return;
+            } catch (Exception e) {
+                log.warn("Audit batch write attempt {} of {} failed: {}", attempt, MAX_WRITE_ATTEMPTS, e.getMessage());
+            }
+        }
+        failedCounter.increment(batch.size());
+        log.error("Dropped {} audit events after {} failed write attempts", batch.size(), MAX_WRITE_ATTEMPTS);
+    }
+
+    private AuditLog toAuditLog(AuditLogRequest request) {
+        return AuditLog.builder()
+                .action(request.getAction())
+                .entityType(request.getEntityType())
+                .entityId(request.getEntityId())
+                .userId(request.getUserId())
+                .details(request.getDetails())
+                .ipAddress(request.getIpAddress())
+                .userAgent(request.getUserAgent())
+                .timestamp(request.getTimestamp() != null ? request.getTimestamp() : LocalDateTime.now())
+                .build();
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        running = false;
+        drainer.interrupt();
+        drainer.join(TimeUnit.SECONDS.toMillis(10));
+    }
+}
@@ -0,0 +1,31 @@
+package com.banking.audit.service;
+
+import com.banking.audit.entity.AuditLog;
+import com.banking.audit.journal.AuditJournal;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+@Service
+@RequiredArgsConstructor
+public class AuditReplayService {
+    private final ObjectProvider<AuditJournal> journalProvider;
+
+    public Optional<List<AuditLog>> replay(LocalDateTime from, LocalDateTime to, int limit) {
+        AuditJournal journal = journalProvider.getIfAvailable();
+        if (journal == null) {
+            return Optional.empty();
+        }
+        List<AuditLog> events = new ArrayList<>();
+        journal.scan(from, to, event -> {
+            events.add(event);
+            return events.size() < limit;
+        });
+        return Optional.of(events);
+    }
+}
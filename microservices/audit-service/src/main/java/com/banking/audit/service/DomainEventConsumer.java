@@ -0,0 +1,91 @@
+package com.banking.audit.service;
+
+import com.banking.audit.dto.AuditLogRequest;
+import com.banking.audit.dto.DomainEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Records relayed domain events as audit logs. Events are delivered at least once, so the ids of
+ * recently accepted events are remembered and redeliveries are skipped.
+ */
+@Service
+public class DomainEventConsumer {
+    private static final int MAX_DETAILS_LENGTH = 255;
+
+    private final AuditIngestionService auditIngestionService;
+    private final ReentrantLock processedLock = new ReentrantLock();
+    private final Map<String, Boolean> processed;
+    private final Counter duplicates;
+
+    public DomainEventConsumer(AuditIngestionService auditIngestionService,
+                               MeterRegistry meterRegistry,
+                               @Value("${banking.events.dedup-capacity:100000}") int dedupCapacity) {
+        this.auditIngestionService = auditIngestionService;
+        this.processed = new LinkedHashMap<>(1024, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Boolean> eldest) {
+                return size() > dedupCapacity;
+            }
+        };
+        this.duplicates = meterRegistry.counter("audit.events.duplicates");
+    }
+
+    /**
+     * Returns the number of events accepted, including skipped duplicates. Stops at the first
+     * event the ingestion queue rejects so the sender can retry from there.
+     */
+    public int consume(List<DomainEvent> events) {
+        int accepted = 0;
+        for (DomainEvent event : events) {
+            if (isProcessed(event.getEventId())) {
+                duplicates.increment();
+            } else if (auditIngestionService.submit(toAuditLogRequest(event))) {
+                markProcessed(event.getEventId());
+            } else {
+                break;
+            }
+            accepted++;
+        }
+        return accepted;
+    }
+
+    private AuditLogRequest toAuditLogRequest(DomainEvent event) {
+        String details = event.getPayload() != null ? event.getPayload().toString() : null;
+        if (details != null && details.length() > MAX_DETAILS_LENGTH) {
+            details = details.substring(0, MAX_DETAILS_LENGTH);
+        }
+        AuditLogRequest request = new AuditLogRequest();
+        request.setAction(event.getEventType());
+        request.setEntityType(event.getAggregateType());
+        request.setEntityId(event.getAggregateId());
+        request.setDetails(details);
+        request.setTimestamp(event.getOccurredAt());
+        return request;
+    }
+
+    private boolean isProcessed(String eventId) {
+        processedLock.lock();
+        try {
+            return processed.containsKey(eventId);
+        } finally {
+            processedLock.unlock();
+        }
+    }
+
+    private void markProcessed(String eventId) {
+        processedLock.lock();
+        try {
+            processed.put(eventId, Boolean.TRUE);
+        } finally {
+            processedLock.unlock();
+        }
+    }
+}
@@ -0,0 +1,152 @@
+package com.banking.account.service;
+
+import com.banking.account.config.OutboxConfig;
+import com.banking.account.dto.AccountRequest;
+import com.banking.account.dto.AccountResponse;
+import com.banking.account.entity.Account;
+import com.banking.account.repository.AccountRepository;
+import com.banking.benchmarks.BenchmarkContexts;
+import com.banking.common.audit.AuditPublisher;
+import com.banking.common.audit.AuditServiceClient;
+import com.banking.common.id.NodeIdLease;
+import com.banking.common.id.SnowflakeIdGenerator;
+import com.banking.common.idempotency.IdempotencyRecord;
+import com.banking.common.idempotency.IdempotencyRecordRepository;
+import com.banking.common.idempotency.IdempotencyStore;
+import com.banking.common.money.Money;
+import com.banking.common.outbox.AuditEventClient;
+import com.banking.common.outbox.NotificationEventClient;
+import com.banking.common.outbox.OutboxRelay;
+import com.banking.common.sharding.ShardRouter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.SpringBootConfiguration;
+import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.ComponentScan;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class AccountServiceBenchmark {
+    private static final Money AMOUNT = Money.valueOf("10.00");
+
+    @Param({"false", "true"})
+    public boolean ledgerEnabled;
+
+    @Param({"1000"})
+    public int accounts;
+
+    private ConfigurableApplicationContext context;
+    private AccountService accountService;
+    private String[] accountNumbers;
+    private Account account;
+    private Money balance;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContexts.start(Config.class, "accounts",
+                "spring.application.name=account-service", "banking.ledger.enabled=" + ledgerEnabled);
+        accountService = context.getBean(AccountService.class);
+        accountNumbers = new String[accounts];
+        for (int i = 0; i < accounts; i++) {
+            AccountRequest request = new AccountRequest();
+            request.setFirstName("Bench");
+            request.setLastName("Account");
+            request.setGender("Other");
+            request.setAddress("1 Benchmark Way");
+            request.setEmail("bench" + i + "@example.com");
+            accountNumbers[i] = accountService.createAccount(request).getAccountInfo().getAccountNumber();
+            accountService.updateBalance(accountNumbers[i], Money.valueOf("1000000.00"), "CREDIT");
+        }
+        account = context.getBean(AccountRepository.class).findByAccountNumber(accountNumbers[0]).orElseThrow();
+        balance = context.getBean(AccountBalanceStore.class).find(accountNumbers[0]).orElseThrow().balance();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public AccountResponse updateBalanceCredit() {
+        return accountService.updateBalance(randomAccount(), AMOUNT, "CREDIT");
+    }
+
+    @Benchmark
+    public AccountResponse updateBalanceDebit() {
+        return accountService.updateBalance(randomAccount(), AMOUNT, "DEBIT");
+    }
+
+    @Benchmark
+    public AccountResponse getAccountByNumber() {
+        return accountService.getAccountByNumber(randomAccount());
+    }
+
+    @Benchmark
+    public AccountResponse getAccountByNumberMissing() {
+        return accountService.getAccountByNumber(Long.toString(ThreadLocalRandom.current().nextLong(1_000_000_000L)));
+    }
+
+    @Benchmark
+    public AccountResponse buildAccountResponse() {
+        return AccountResponse.builder()
+                .responseCode("200")
+                .responseMessage("Account retrieved successfully")
+                .accountInfo(AccountResponse.AccountInfo.builder()
+                        .accountName(AccountService.accountName(account))
+                        .accountNumber(account.getAccountNumber())
+                        .accountBalance(balance)
+                        .build())
+                .build();
+    }
+
+    private String randomAccount() {
+        return accountNumbers[ThreadLocalRandom.current().nextInt(accountNumbers.length)];
+    }
+
+    @SpringBootConfiguration
+    @EnableAutoConfiguration
+    @EntityScan(basePackageClasses = {Account.class, IdempotencyRecord.class, NodeIdLease.class})
+    @EnableJpaRepositories(basePackageClasses = {AccountRepository.class, IdempotencyRecordRepository.class})
+    @ComponentScan(basePackageClasses = {AccountService.class, OutboxConfig.class, AuditPublisher.class,
+            SnowflakeIdGenerator.class, IdempotencyStore.class, OutboxRelay.class, ShardRouter.class},
+            excludeFilters = @ComponentScan.Filter(SpringBootConfiguration.class))
+    static class Config {
+        @Bean
+        AuditServiceClient auditServiceClient() {
+            return requests -> {
+            };
+        }
+
+        @Bean
+        AuditEventClient auditEventClient() {
+            return events -> {
+            };
+        }
+
+        @Bean
+        NotificationEventClient notificationEventClient() {
+            return events -> {
+            };
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package com.banking.benchmarks;
+
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Boots a service's beans against an in-memory H2 database with discovery switched off.
+ * JMH suites run without the web layer so they measure the service code rather than the network.
+ */
+public final class BenchmarkContexts {
+    private BenchmarkContexts() {
+    }
+
+    public static ConfigurableApplicationContext start(Class<?> configuration, String database, String... properties) {
+        return start(configuration, WebApplicationType.NONE, database, properties);
+    }
+
+    public static ConfigurableApplicationContext start(Class<?> configuration, WebApplicationType webApplicationType,
+                                                       String database, String... properties) {
+        List<String> args = new ArrayList<>(List.of(
+                "--spring.datasource.url=jdbc:h2:mem:" + database + ";DB_CLOSE_DELAY=-1",
+                "--spring.datasource.driver-class-name=org.h2.Driver",
+                "--spring.jpa.hibernate.ddl-auto=create-drop",
+                "--spring.jpa.open-in-view=false",
+                "--spring.jpa.properties.hibernate.jdbc.batch_size=100",
+                "--spring.cloud.compatibility-verifier.enabled=false",
+                "--spring.cloud.discovery.enabled=false",
+                "--eureka.client.enabled=false",
+                "--spring.main.banner-mode=off",
+                "--logging.level.root=WARN",
+                "--banking.audit.enabled=false"));
+        for (String property : properties) {
+            args.add("--" + property);
+        }
+        return new SpringApplicationBuilder(configuration)
+                .web(webApplicationType)
+                .run(args.toArray(String[]::new));
+    }
+}
@@ -0,0 +1,58 @@
+package com.banking.benchmarks;
+
+import com.banking.common.money.Money;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Applies the credit, balance check and debit of one transfer leg with each amount representation,
+ * so the allocation rates reported by {@code -prof gc} can be compared directly.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class MoneyBenchmark {
+    private final BigDecimal decimalAmount = new BigDecimal("25.00");
+    private final Money moneyAmount = Money.valueOf("25.00");
+    private BigDecimal decimalBalance = new BigDecimal("1000000.00");
+    private Money moneyBalance = Money.valueOf("1000000.00");
+    private long minorBalance = moneyBalance.minorUnits();
+
+    @Benchmark
+    public BigDecimal bigDecimal() {
+        decimalBalance = decimalBalance.add(decimalAmount);
+        if (decimalBalance.compareTo(decimalAmount) >= 0) {
+            decimalBalance = decimalBalance.subtract(decimalAmount);
+        }
+        return decimalBalance;
+    }
+
+    @Benchmark
+    public Money money() {
+        moneyBalance = moneyBalance.plus(moneyAmount);
+        if (!moneyBalance.isLessThan(moneyAmount)) {
+            moneyBalance = moneyBalance.minus(moneyAmount);
+        }
+        return moneyBalance;
+    }
+
+    @Benchmark
+    public long minorUnits() {
+        minorBalance = Math.addExact(minorBalance, moneyAmount.minorUnits());
+        if (minorBalance >= moneyAmount.minorUnits()) {
+            minorBalance -= moneyAmount.minorUnits();
+        }
+        return minorBalance;
+    }
+}
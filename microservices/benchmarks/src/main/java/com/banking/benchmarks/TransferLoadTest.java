@@ -0,0 +1,218 @@
+package com.banking.benchmarks;
+
+import com.banking.common.audit.AuditPublisher;
+import com.banking.common.audit.AuditServiceClient;
+import com.banking.common.id.NodeIdLease;
+import com.banking.common.id.SnowflakeIdGenerator;
+import com.banking.common.idempotency.IdempotencyRecord;
+import com.banking.common.idempotency.IdempotencyRecordRepository;
+import com.banking.common.idempotency.IdempotencyStore;
+import com.banking.common.outbox.AuditEventClient;
+import com.banking.common.outbox.NotificationEventClient;
+import com.banking.common.outbox.OutboxRelay;
+import com.banking.common.sharding.ShardRouter;
+import com.banking.transaction.config.OutboxConfig;
+import com.banking.transaction.controller.TransactionController;
+import com.banking.transaction.entity.Transaction;
+import com.banking.transaction.repository.TransactionRepository;
+import com.banking.transaction.service.AccountServiceClient;
+import com.banking.transaction.service.TransactionService;
+import com.sun.net.httpserver.HttpServer;
+import org.springframework.boot.SpringBootConfiguration;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.cloud.openfeign.EnableFeignClients;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.ComponentScan;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Compares transaction-service's platform-thread and virtual-thread modes under a slow
+ * account-service. A stub account-service answers every transfer after a fixed delay over
+ * real HTTP, so each request goes through Tomcat, the controller, Feign and H2.
+ * Arguments: concurrency, total requests, account-service latency in milliseconds.
+ */
+public final class TransferLoadTest {
+    private static final String TRANSFER_BODY = "{\"sourceAccountNumber\":\"2024000001\","
+            + "\"destinationAccountNumber\":\"2024000002\",\"amount\":25.00,\"description\":\"load test\"}";
+    private static final String ACCOUNT_RESPONSE = "{\"responseCode\":\"200\",\"responseMessage\":\"Transfer completed successfully\","
+            + "\"accountInfo\":{\"accountName\":\"Load Test\",\"accountNumber\":\"2024000001\",\"accountBalance\":1000000.00}}";
+
+    private TransferLoadTest() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        int concurrency = args.length > 0 ? Integer.parseInt(args[0]) : 2000;
+        int requests = args.length > 1 ? Integer.parseInt(args[1]) : 20000;
+        long latencyMs = args.length > 2 ? Long.parseLong(args[2]) : 200;
+
+        HttpServer accountService = startStubAccountService(latencyMs);
+        try {
+            String accountServiceUrl = "http://localhost:" + accountService.getAddress().getPort();
+            System.out.printf("concurrency=%d requests=%d account-service latency=%dms%n%n", concurrency, requests, latencyMs);
+            System.out.printf("%-10s %12s %10s %10s %10s %8s %14s%n",
+                    "mode", "throughput/s", "p50 ms", "p99 ms", "max ms", "errors", "peak threads");
+            for (boolean virtualThreads : new boolean[]{false, true}) {
+                Result result = run(accountServiceUrl, virtualThreads, concurrency, requests);
+                System.out.printf("%-10s %12.0f %10.1f %10.1f %10.1f %8d %14d%n",
+                        virtualThreads ? "virtual" : "platform", result.throughput(),
+                        result.p50Millis(), result.p99Millis(), result.maxMillis(), result.errors(), result.peakThreads());
+            }
+        } finally {
+            accountService.stop(0);
+        }
+    }
+
+    private static Result run(String accountServiceUrl, boolean virtualThreads, int concurrency, int requests)
+            throws Exception {
+        try (ConfigurableApplicationContext context = BenchmarkContexts.start(Config.class, WebApplicationType.SERVLET,
+                "loadtest" + virtualThreads,
+                "spring.application.name=transaction-service",
+                "spring.threads.virtual.enabled=" + virtualThreads,
+                "server.port=0",
+                "spring.cloud.openfeign.http2client.enabled=true",
+                "spring.cloud.openfeign.httpclient.http2.version=HTTP_1_1",
+                "spring.cloud.openfeign.client.config.account-service.url=" + accountServiceUrl,
+                "spring.cloud.openfeign.client.config.default.connectTimeout=5000",
+                "spring.cloud.openfeign.client.config.default.readTimeout=5000")) {
+            int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+            URI transfer = URI.create("http://localhost:" + port + "/api/transactions/transfer");
+            HttpClient client = HttpClient.newBuilder()
+                    .version(HttpClient.Version.HTTP_1_1)
+                    .executor(Executors.newVirtualThreadPerTaskExecutor())
+                    .connectTimeout(Duration.ofSeconds(10))
+                    .build();
+
+            // Warm up Tomcat, Feign and Hibernate before measuring.
+            drive(client, transfer, Math.min(concurrency, 50), 500);
+
+            ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+            threads.resetPeakThreadCount();
+            long started = System.nanoTime();
+            Sample sample = drive(client, transfer, concurrency, requests);
+            double elapsedSeconds = (System.nanoTime() - started) / 1e9;
+
+            long[] latencies = Arrays.copyOf(sample.latencies(), sample.completed());
+            Arrays.sort(latencies);
+            return new Result(sample.completed() / elapsedSeconds,
+                    percentile(latencies, 0.50), percentile(latencies, 0.99),
+                    latencies.length == 0 ? 0 : latencies[latencies.length - 1] / 1e6,
+                    sample.errors(), threads.getPeakThreadCount());
+        }
+    }
+
+    private static Sample drive(HttpClient client, URI transfer, int concurrency, int requests) throws Exception {
+        long[] latencies = new long[requests];
+        AtomicInteger next = new AtomicInteger();
+        AtomicInteger completed = new AtomicInteger();
+        AtomicInteger errors = new AtomicInteger();
+        HttpRequest request = HttpRequest.newBuilder(transfer)
+                .header("Content-Type", "application/json")
+                .timeout(Duration.ofSeconds(30))
+                .POST(HttpRequest.BodyPublishers.ofString(TRANSFER_BODY))
+                .build();
+        try (ExecutorService workers = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int w = 0; w < concurrency; w++) {
+                workers.submit(() -> {
+                    while (next.getAndIncrement() < requests) {
+                        long start = System.nanoTime();
+                        try {
+                            HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+                            if (response.statusCode() != 200) {
+                                errors.incrementAndGet();
+                                continue;
+                            }
+                            latencies[completed.getAndIncrement()] = System.nanoTime() - start;
+                        } catch (Exception e) {
+                            errors.incrementAndGet();
+                        }
+                    }
+                    return null;
+                });
+            }
+        }
+        return new Sample(latencies, completed.get(), errors.get());
+    }
+
+    private static HttpServer startStubAccountService(long latencyMs) throws Exception {
+        // Without TCP_NODELAY the stub's separate header and body writes hit delayed ACKs (~40ms each).
+        System.setProperty("sun.net.httpserver.nodelay", "true");
+        HttpServer server = HttpServer.create(new InetSocketAddress("localhost", 0), 4096);
+        byte[] body = ACCOUNT_RESPONSE.getBytes(StandardCharsets.UTF_8);
+        server.createContext("/api/accounts/transfer", exchange -> {
+            try (exchange) {
+                exchange.getRequestBody().readAllBytes();
+                Thread.sleep(latencyMs);
+                exchange.getResponseHeaders().add("Content-Type", "application/json");
+                exchange.sendResponseHeaders(200, body.length);
+                exchange.getResponseBody().write(body);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        server.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+        server.start();
+        return server;
+    }
+
+    private static double percentile(long[] sorted, double quantile) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int index = (int) Math.min(sorted.length - 1, Math.ceil(quantile * sorted.length) - 1);
+        return sorted[Math.max(0, index)] / 1e6;
+    }
+
+    private record Sample(long[] latencies, int completed, int errors) {
+    }
+
+    private record Result(double throughput, double p50Millis, double p99Millis, double maxMillis,
+                          int errors, int peakThreads) {
+    }
+
+    @SpringBootConfiguration
+    @EnableAutoConfiguration
+    @EntityScan(basePackageClasses = {Transaction.class, IdempotencyRecord.class, NodeIdLease.class})
+    @EnableJpaRepositories(basePackageClasses = {TransactionRepository.class, IdempotencyRecordRepository.class})
+    @ComponentScan(basePackageClasses = {TransactionService.class, TransactionController.class,
+            OutboxConfig.class, AuditPublisher.class, SnowflakeIdGenerator.class, IdempotencyStore.class,
+            OutboxRelay.class, ShardRouter.class},
+            excludeFilters = @ComponentScan.Filter(SpringBootConfiguration.class))
+    @EnableFeignClients(clients = AccountServiceClient.class)
+    static class Config {
+        @Bean
+        AuditServiceClient auditServiceClient() {
+            return requests -> {
+            };
+        }
+
+        @Bean
+        AuditEventClient auditEventClient() {
+            return events -> {
+            };
+        }
+
+        @Bean
+        NotificationEventClient notificationEventClient() {
+            return events -> {
+            };
+        }
+    }
+}
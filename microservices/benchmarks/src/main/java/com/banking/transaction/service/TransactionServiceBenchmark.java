@@ -0,0 +1,190 @@
+package com.banking.transaction.service;
+
+import com.banking.benchmarks.BenchmarkContexts;
+import com.banking.common.audit.AuditPublisher;
+import com.banking.common.audit.AuditServiceClient;
+import com.banking.common.id.NodeIdLease;
+import com.banking.common.id.SnowflakeIdGenerator;
+import com.banking.common.idempotency.IdempotencyRecord;
+import com.banking.common.idempotency.IdempotencyRecordRepository;
+import com.banking.common.idempotency.IdempotencyStore;
+import com.banking.common.money.Money;
+import com.banking.common.outbox.AuditEventClient;
+import com.banking.common.outbox.NotificationEventClient;
+import com.banking.common.outbox.OutboxRelay;
+import com.banking.common.sharding.ShardRouter;
+import com.banking.transaction.config.OutboxConfig;
+import com.banking.transaction.dto.AccountBatchTransferRequest;
+import com.banking.transaction.dto.AccountBatchTransferResponse;
+import com.banking.transaction.dto.AccountResponse;
+import com.banking.transaction.dto.AccountTransferRequest;
+import com.banking.transaction.dto.BalanceTotalsResponse;
+import com.banking.transaction.dto.TransactionResponse;
+import com.banking.transaction.dto.TransferRequest;
+import com.banking.transaction.entity.Transaction;
+import com.banking.transaction.repository.TransactionRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.SpringBootConfiguration;
+import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.ComponentScan;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class TransactionServiceBenchmark {
+    private ConfigurableApplicationContext context;
+    private TransactionService transactionService;
+    private TransferRequest transferRequest;
+    private Transaction transaction;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContexts.start(Config.class, "transactions", "spring.application.name=transaction-service");
+        transactionService = context.getBean(TransactionService.class);
+
+        transferRequest = new TransferRequest();
+        transferRequest.setSourceAccountNumber("2024000001");
+        transferRequest.setDestinationAccountNumber("2024000002");
+        transferRequest.setAmount(Money.valueOf("25.00"));
+        transferRequest.setDescription("Benchmark transfer");
+
+        transaction = Transaction.builder()
+                .id(1L)
+                .transactionReference("TXN202401011200001234")
+                .sourceAccountNumber("2024000001")
+                .destinationAccountNumber("2024000002")
+                .amount(Money.valueOf("25.00"))
+                .transactionType(Transaction.TransactionType.TRANSFER)
+                .status(Transaction.TransactionStatus.COMPLETED)
+                .description("Benchmark transfer")
+                .createdAt(LocalDateTime.now())
+                .build();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public TransactionResponse processTransfer() {
+        return transactionService.processTransfer(transferRequest);
+    }
+
+    @Benchmark
+    public TransactionResponse processTransferReplay() {
+        return transactionService.processTransfer(transferRequest, "benchmark-replay");
+    }
+
+    @Benchmark
+    public String generateTransactionReference() {
+        return transactionService.generateTransactionReference();
+    }
+
+    @Benchmark
+    public TransactionResponse.TransactionInfo buildTransactionInfo() {
+        return transactionService.buildTransactionInfo(transaction);
+    }
+
+    @SpringBootConfiguration
+    @EnableAutoConfiguration
+    @EntityScan(basePackageClasses = {Transaction.class, IdempotencyRecord.class, NodeIdLease.class})
+    @EnableJpaRepositories(basePackageClasses = {TransactionRepository.class, IdempotencyRecordRepository.class})
+    @ComponentScan(basePackageClasses = {TransactionService.class, OutboxConfig.class, AuditPublisher.class,
+            SnowflakeIdGenerator.class, IdempotencyStore.class, OutboxRelay.class, ShardRouter.class},
+            excludeFilters = @ComponentScan.Filter(SpringBootConfiguration.class))
+    static class Config {
+        @Bean
+        AuditServiceClient auditServiceClient() {
+            return requests -> {
+            };
+        }
+
+        @Bean
+        AuditEventClient auditEventClient() {
+            return events -> {
+            };
+        }
+
+        @Bean
+        NotificationEventClient notificationEventClient() {
+            return events -> {
+            };
+        }
+
+        @Bean
+        AccountServiceClient accountServiceClient() {
+            return new StubAccountServiceClient();
+        }
+    }
+
+    /**
+     * Answers every call as account-service would for two funded accounts, without a network hop.
+     */
+    static class StubAccountServiceClient implements AccountServiceClient {
+        private static final Money FUNDED = Money.valueOf("1000000.00");
+
+        @Override
+        public BalanceTotalsResponse getBalanceTotals(String after, int limit) {
+            BalanceTotalsResponse response = new BalanceTotalsResponse();
+            response.setResponseCode("200");
+            response.setResponseMessage("0 accounts listed");
+            response.setAccounts(List.of());
+            return response;
+        }
+
+        @Override
+        public AccountResponse transfer(AccountTransferRequest request, String idempotencyKey) {
+            return success(request.getSourceAccountNumber(), FUNDED);
+        }
+
+        @Override
+        public AccountBatchTransferResponse transferBatch(AccountBatchTransferRequest request, String idempotencyKey) {
+            AccountBatchTransferResponse response = new AccountBatchTransferResponse();
+            response.setResponseCode("200");
+            response.setResponseMessage("Batch processed");
+            response.setResults(new ArrayList<>(request.getTransfers().size()));
+            for (int i = 0; i < request.getTransfers().size(); i++) {
+                AccountBatchTransferResponse.Result result = new AccountBatchTransferResponse.Result();
+                result.setIndex(i);
+                result.setResponseCode("200");
+                result.setResponseMessage("Transfer completed successfully");
+                response.getResults().add(result);
+            }
+            return response;
+        }
+
+        private static AccountResponse success(String accountNumber, Money balance) {
+            AccountResponse.AccountInfo info = new AccountResponse.AccountInfo();
+            info.setAccountName("Bench Account");
+            info.setAccountNumber(accountNumber);
+            info.setAccountBalance(balance);
+            AccountResponse response = new AccountResponse();
+            response.setResponseCode("200");
+            response.setResponseMessage("Transfer completed successfully");
+            response.setAccountInfo(info);
+            return response;
+        }
+    }
+}
@@ -3,6 +3,10 @@ set -euo pipefail
 
 echo "Building all microservices..."
 
+# The services depend on the shared module, so it goes to the local repository first
+echo "Building common..."
+(cd common && mvn clean install -DskipTests)
+
 # Array of services to build
 services=("service-discovery" "account-service" "transaction-service" "notification-service" "audit-service" "api-gateway")
 
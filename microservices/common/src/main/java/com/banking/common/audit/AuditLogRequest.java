@@ -0,0 +1,20 @@
+package com.banking.common.audit;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class AuditLogRequest {
+    private String action;
+    private String entityType;
+    private String entityId;
+    private String details;
+    private LocalDateTime timestamp;
+}
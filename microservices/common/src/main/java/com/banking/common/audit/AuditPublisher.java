@@ -0,0 +1,114 @@
+package com.banking.common.audit;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Fire-and-forget audit client. Callers only enqueue; a background thread ships events to
+ * audit-service in batches, and events are dropped (and counted) rather than ever blocking a request.
+ */
+@Component
+@Slf4j
+public class AuditPublisher {
+    private final AuditServiceClient auditServiceClient;
+    private final BlockingQueue<AuditLogRequest> queue;
+    private final boolean enabled;
+    private final int batchSize;
+    private final Counter droppedCounter;
+    private final Thread sender;
+    private volatile boolean running = true;
+
+    public AuditPublisher(AuditServiceClient auditServiceClient,
+                          MeterRegistry meterRegistry,
+                          @Value("${banking.audit.enabled:true}") boolean enabled,
+                          @Value("${banking.audit.queue-capacity:10000}") int queueCapacity,
+                          @Value("${banking.audit.batch-size:200}") int batchSize) {
+        this.auditServiceClient = auditServiceClient;
+        this.enabled = enabled;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.batchSize = Math.max(1, batchSize);
+        Gauge.builder("audit.publish.queue.depth", queue, BlockingQueue::size).register(meterRegistry);
+        this.droppedCounter = meterRegistry.counter("audit.publish.dropped");
+        this.sender = Thread.ofVirtual().name("audit-publisher").unstarted(this::sendLoop);
+    }
+
+    @PostConstruct
+    public void start() {
+        if (enabled) {
+            sender.start();
+        }
+    }
+
+    public void publish(String action, String entityType, String entityId, String details) {
+        if (!enabled) {
+            return;
+        }
+        AuditLogRequest event = AuditLogRequest.builder()
+                .action(action)
+                .entityType(entityType)
+                .entityId(entityId)
+                .details(details)
+                .timestamp(LocalDateTime.now())
+                .build();
+        if (!queue.offer(event)) {
+            droppedCounter.increment();
+        }
+    }
+
+    private void sendLoop() {
+        List<AuditLogRequest> batch = new ArrayList<>(batchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                AuditLogRequest first = queue.poll(1, TimeUnit.SECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, batchSize - 1);
+                send(batch);
+            } catch (InterruptedException e) {
+                if (!running) {
+                    queue.drainTo(batch);
+                    send(batch);
+                    return;
+                }
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void send(List<AuditLogRequest> batch) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        try {
+            auditServiceClient.ingestBatch(List.copyOf(batch));
+        } catch (Exception e) {
+            droppedCounter.increment(batch.size());
+            log.warn("Dropped {} audit events: {}", batch.size(), e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        running = false;
+        sender.interrupt();
+        if (sender.isAlive()) {
+            sender.join(TimeUnit.SECONDS.toMillis(5));
+        }
+    }
+}
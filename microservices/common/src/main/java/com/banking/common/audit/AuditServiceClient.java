@@ -0,0 +1,13 @@
+package com.banking.common.audit;
+
+import org.springframework.cloud.openfeign.FeignClient;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+
+import java.util.List;
+
+@FeignClient(name = "audit-service")
+public interface AuditServiceClient {
+    @PostMapping("/internal/audit/logs/batch")
+    void ingestBatch(@RequestBody List<AuditLogRequest> requests);
+}
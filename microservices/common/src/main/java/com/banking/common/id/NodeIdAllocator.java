@@ -0,0 +1,136 @@
+package com.banking.common.id;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Leases the node id that {@link SnowflakeIdGenerator} puts into ids from the {@code node_id_leases}
+ * table, so no two live instances of a service share one. A configured {@code banking.id.node-id}
+ * is leased too, and startup fails while another instance holds it; otherwise the lowest free or
+ * lapsed id is taken. The lease is renewed on a schedule, and ids are only issued during the first
+ * half of the last renewed lease, so another instance whose clock runs ahead by less than that
+ * cannot claim the id while it is still in use.
+ */
+@Component
+// Hibernate creates the lease table.
+@DependsOn("entityManagerFactory")
+@Slf4j
+public class NodeIdAllocator {
+    private static final String SELECT_LIVE = "SELECT node_id FROM node_id_leases WHERE namespace = ? AND expires_at >= ?";
+    private static final String INSERT_LEASE = "INSERT INTO node_id_leases "
+            + "(lease_key, namespace, node_id, owner, expires_at) VALUES (?, ?, ?, ?, ?)";
+    private static final String CLAIM_LAPSED = "UPDATE node_id_leases SET owner = ?, expires_at = ? "
+            + "WHERE lease_key = ? AND expires_at < ?";
+    private static final String RENEW = "UPDATE node_id_leases SET expires_at = ? WHERE lease_key = ? AND owner = ?";
+    private static final String RELEASE = "DELETE FROM node_id_leases WHERE lease_key = ? AND owner = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final String namespace;
+    private final Duration ttl;
+    private final String owner = UUID.randomUUID().toString();
+    private final int nodeId;
+    // Wall-clock millis until which ids may be issued under the lease.
+    private volatile long validUntil;
+
+    public NodeIdAllocator(JdbcTemplate jdbcTemplate,
+                           @Value("${spring.application.name}") String namespace,
+                           @Value("${banking.id.node-id:${NODE_ID:-1}}") int configuredNodeId,
+                           @Value("${banking.id.lease-ttl:60s}") Duration ttl) {
+        if (configuredNodeId > SnowflakeIdGenerator.MAX_NODE_ID) {
+            throw new IllegalArgumentException("banking.id.node-id must be between 0 and "
+                    + SnowflakeIdGenerator.MAX_NODE_ID);
+        }
+        this.jdbcTemplate = jdbcTemplate;
+        this.namespace = namespace;
+        this.ttl = ttl;
+        this.nodeId = configuredNodeId >= 0 ? claimConfigured(configuredNodeId) : claimFree();
+        log.info("Leased node id {} for {}", nodeId, namespace);
+    }
+
+    public int nodeId() {
+        return nodeId;
+    }
+
+    public boolean isHeld() {
+        return System.currentTimeMillis() < validUntil;
+    }
+
+    @Scheduled(fixedDelayString = "${banking.id.lease-renew-interval-ms:10000}")
+    public void renew() {
+        long started = System.currentTimeMillis();
+        try {
+            if (jdbcTemplate.update(RENEW, Timestamp.valueOf(LocalDateTime.now().plus(ttl)), leaseKey(nodeId), owner) == 1) {
+                validUntil = started + ttl.toMillis() / 2;
+            } else if (!tryClaim(nodeId)) {
+                validUntil = 0;
+                log.error("Node id {} is leased by another {} instance; no ids are issued until it is free",
+                        nodeId, namespace);
+            }
+        } catch (Exception e) {
+            log.warn("Could not renew the lease on node id {}: {}", nodeId, e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    public void release() {
+        validUntil = 0;
+        try {
+            jdbcTemplate.update(RELEASE, leaseKey(nodeId), owner);
+        } catch (Exception e) {
+            log.warn("Could not release node id {}, it will lapse: {}", nodeId, e.getMessage());
+        }
+    }
+
+    private int claimConfigured(int candidate) {
+        if (!tryClaim(candidate)) {
+            throw new IllegalStateException("banking.id.node-id " + candidate + " is leased by another live "
+                    + namespace + " instance");
+        }
+        return candidate;
+    }
+
+    private int claimFree() {
+        Set<Integer> live = new HashSet<>(jdbcTemplate.queryForList(SELECT_LIVE, Integer.class,
+                namespace, Timestamp.valueOf(LocalDateTime.now())));
+        for (int candidate = 0; candidate <= SnowflakeIdGenerator.MAX_NODE_ID; candidate++) {
+            if (!live.contains(candidate) && tryClaim(candidate)) {
+                return candidate;
+            }
+        }
+        throw new IllegalStateException("Every node id of " + namespace + " is leased");
+    }
+
+    private boolean tryClaim(int candidate) {
+        long started = System.currentTimeMillis();
+        LocalDateTime now = LocalDateTime.now();
+        Timestamp expiresAt = Timestamp.valueOf(now.plus(ttl));
+        boolean claimed;
+        try {
+            claimed = jdbcTemplate.update(INSERT_LEASE, leaseKey(candidate), namespace, candidate, owner, expiresAt) == 1;
+        } catch (DuplicateKeyException e) {
+            claimed = jdbcTemplate.update(CLAIM_LAPSED, owner, expiresAt, leaseKey(candidate),
+                    Timestamp.valueOf(now)) == 1;
+        }
+        if (claimed) {
+            validUntil = started + ttl.toMillis() / 2;
+        }
+        return claimed;
+    }
+
+    private String leaseKey(int candidate) {
+        return namespace + ":" + candidate;
+    }
+}
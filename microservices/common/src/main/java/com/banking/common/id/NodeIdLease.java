@@ -0,0 +1,33 @@
+package com.banking.common.id;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "node_id_leases", indexes = {
+        @Index(name = "idx_node_id_leases_namespace", columnList = "namespace, expires_at")
+})
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class NodeIdLease {
+    // <namespace>:<node id>; each service leases its node ids independently.
+    @Id
+    @Column(length = 128)
+    private String leaseKey;
+
+    @Column(nullable = false)
+    private String namespace;
+
+    @Column(nullable = false)
+    private Integer nodeId;
+
+    @Column(nullable = false, length = 36)
+    private String owner;
+
+    @Column(nullable = false)
+    private LocalDateTime expiresAt;
+}
@@ -0,0 +1,99 @@
+package com.banking.common.id;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Snowflake-style 63-bit ids: 41 bits of milliseconds since 2024-01-01T00:00Z, 10 bits of
+ * node id and a 12-bit per-millisecond sequence. Ids are unique as long as every instance
+ * runs with its own node id, which {@link NodeIdAllocator} leases, and they sort by creation time.
+ * Generation is lock-free: the last timestamp and sequence share one CAS-updated word, and
+ * when a millisecond's sequence is exhausted or the wall clock steps back the generator keeps
+ * counting on its own logical clock instead of waiting.
+ */
+@Component
+public class SnowflakeIdGenerator {
+    static final long EPOCH_MILLIS = 1704067200000L;
+    static final int NODE_BITS = 10;
+    static final int SEQUENCE_BITS = 12;
+    static final int MAX_NODE_ID = (1 << NODE_BITS) - 1;
+    private static final long SEQUENCE_MASK = (1L << SEQUENCE_BITS) - 1;
+    private static final int DIGITS = 19;
+
+    private final long nodeBits;
+    // Null when the node id was given directly.
+    private final NodeIdAllocator allocator;
+    // (millis since epoch << SEQUENCE_BITS) | sequence of the last id handed out
+    private final AtomicLong lastState = new AtomicLong();
+
+    @Autowired
+    public SnowflakeIdGenerator(NodeIdAllocator allocator) {
+        this(allocator.nodeId(), allocator);
+    }
+
+    public SnowflakeIdGenerator(int nodeId) {
+        this(nodeId, null);
+    }
+
+    private SnowflakeIdGenerator(int nodeId, NodeIdAllocator allocator) {
+        if (nodeId < 0 || nodeId > MAX_NODE_ID) {
+            throw new IllegalArgumentException("Node id must be between 0 and " + MAX_NODE_ID);
+        }
+        this.nodeBits = (long) nodeId << SEQUENCE_BITS;
+        this.allocator = allocator;
+    }
+
+    public long nextId() {
+        if (allocator != null && !allocator.isHeld()) {
+            throw new IllegalStateException("The node id lease has lapsed, so ids could collide with another instance");
+        }
+        long now = System.currentTimeMillis() - EPOCH_MILLIS;
+        while (true) {
+            long last = lastState.get();
+            long lastMillis = last >>> SEQUENCE_BITS;
+            long next = now > lastMillis ? now << SEQUENCE_BITS : last + 1;
+            if (lastState.compareAndSet(last, next)) {
+                long millis = next >>> SEQUENCE_BITS;
+                return (millis << (NODE_BITS + SEQUENCE_BITS)) | nodeBits | (next & SEQUENCE_MASK);
+            }
+        }
+    }
+
+    /**
+     * Returns the next id as a prefix followed by 19 zero-padded digits, so string order
+     * matches id order.
+     */
+    public String next(String prefix) {
+        long id = nextId();
+        int length = prefix.length() + DIGITS;
+        char[] chars = new char[length];
+        prefix.getChars(0, prefix.length(), chars, 0);
+        for (int i = length - 1; i >= prefix.length(); i--) {
+            chars[i] = (char) ('0' + (id % 10));
+            id /= 10;
+        }
+        return new String(chars);
+    }
+
+    /**
+     * Returns the creation time, in epoch milliseconds, of an id produced by {@code next("")},
+     * or -1 when {@code value} is not such an id.
+     */
+    public static long timestampOf(String value) {
+        if (value == null || value.length() != DIGITS) {
+            return -1;
+        }
+        for (int i = 0; i < DIGITS; i++) {
+            if (value.charAt(i) < '0' || value.charAt(i) > '9') {
+                return -1;
+            }
+        }
+        try {
+            return (Long.parseLong(value) >>> (NODE_BITS + SEQUENCE_BITS)) + EPOCH_MILLIS;
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+}
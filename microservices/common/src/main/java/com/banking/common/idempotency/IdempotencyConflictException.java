@@ -0,0 +1,26 @@
+package com.banking.common.idempotency;
+
+/**
+ * Refuses a request whose {@code Idempotency-Key} cannot be honoured. Carries the response code
+ * the caller should answer with.
+ */
+public class IdempotencyConflictException extends RuntimeException {
+    private final String responseCode;
+
+    private IdempotencyConflictException(String responseCode, String message) {
+        super(message);
+        this.responseCode = responseCode;
+    }
+
+    public String getResponseCode() {
+        return responseCode;
+    }
+
+    static IdempotencyConflictException reused() {
+        return new IdempotencyConflictException("422", "Idempotency-Key was already used for a different request");
+    }
+
+    static IdempotencyConflictException inProgress() {
+        return new IdempotencyConflictException("409", "A request with this Idempotency-Key is still being processed");
+    }
+}
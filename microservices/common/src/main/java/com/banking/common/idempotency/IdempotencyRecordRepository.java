@@ -0,0 +1,38 @@
+package com.banking.common.idempotency;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+@Repository
+public interface IdempotencyRecordRepository extends JpaRepository<IdempotencyRecord, Long> {
+    Optional<IdempotencyRecord> findByIdempotencyKey(String idempotencyKey);
+
+    @Modifying
+    @Transactional
+    @Query("delete from IdempotencyRecord r where r.expiresAt < :now")
+    int deleteExpired(@Param("now") LocalDateTime now);
+
+    @Modifying
+    @Transactional
+    @Query("delete from IdempotencyRecord r where r.idempotencyKey = :key and r.expiresAt <= :now")
+    int deleteExpiredKey(@Param("key") String idempotencyKey, @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Transactional
+    @Query("update IdempotencyRecord r set r.status = :status, r.responseBody = :body "
+            + "where r.idempotencyKey = :key and r.status = 'PENDING'")
+    int complete(@Param("key") String idempotencyKey, @Param("status") String status,
+                 @Param("body") String responseBody);
+
+    @Modifying
+    @Transactional
+    @Query("delete from IdempotencyRecord r where r.idempotencyKey = :key and r.status = :status")
+    int release(@Param("key") String idempotencyKey, @Param("status") String status);
+}
@@ -0,0 +1,344 @@
+package com.banking.common.idempotency;
+
+import com.banking.common.sharding.ShardRouter;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * Runs a request carrying an {@code Idempotency-Key} at most once and replays its response to
+ * repeats. Before the request runs, the key is claimed by inserting a PENDING row into
+ * {@code idempotency_records}, so a repeat reaching any instance waits for the first attempt instead
+ * of running again. Requests that make their changes in one local transaction call
+ * {@link #complete} inside it, which stores the response atomically with the changes; any other
+ * response is stored as soon as the request returns. A key is tied to a hash of its request, and
+ * reusing it for a different request is rejected. Completed responses are also held in memory until
+ * their TTL passes.
+ */
+@Component
+@Slf4j
+public class IdempotencyStore {
+    private static final String PENDING = "PENDING";
+    private static final String COMPLETED = "COMPLETED";
+    private static final long POLL_INTERVAL_MS = 50;
+    private static final ThreadLocal<Claim> CURRENT = new ThreadLocal<>();
+    private static final String INSERT_CLAIM = "INSERT INTO idempotency_records "
+            + "(idempotency_key, request_hash, status, created_at, expires_at) VALUES (?, ?, 'PENDING', ?, ?)";
+
+    private final IdempotencyRecordRepository repository;
+    private final ObjectMapper objectMapper;
+    private final ShardRouter shardRouter;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate claimTemplate;
+    private final String namespace;
+    private final Duration ttl;
+    private final Duration waitTimeout;
+    private final int maxEntries;
+    private final ConcurrentHashMap<String, Entry> entries = new ConcurrentHashMap<>();
+    private final Counter memoryHits;
+    private final Counter databaseHits;
+    private final Counter conflicts;
+
+    public IdempotencyStore(IdempotencyRecordRepository repository,
+                            ObjectMapper objectMapper,
+                            ShardRouter shardRouter,
+                            JdbcTemplate jdbcTemplate,
+                            PlatformTransactionManager transactionManager,
+                            MeterRegistry meterRegistry,
+                            @Value("${spring.application.name}") String namespace,
+                            @Value("${banking.idempotency.ttl:24h}") Duration ttl,
+                            @Value("${banking.idempotency.wait-timeout:5s}") Duration waitTimeout,
+                            @Value("${banking.idempotency.max-entries:100000}") int maxEntries) {
+        this.repository = repository;
+        this.objectMapper = objectMapper;
+        this.shardRouter = shardRouter;
+        this.jdbcTemplate = jdbcTemplate;
+        // Claims must be visible to other instances before the request runs, whatever the caller's transaction.
+        this.claimTemplate = new TransactionTemplate(transactionManager);
+        this.claimTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.namespace = namespace;
+        this.ttl = ttl;
+        this.waitTimeout = waitTimeout;
+        this.maxEntries = maxEntries;
+        this.memoryHits = meterRegistry.counter("idempotency.replays", "source", "memory");
+        this.databaseHits = meterRegistry.counter("idempotency.replays", "source", "database");
+        this.conflicts = meterRegistry.counter("idempotency.conflicts");
+        meterRegistry.gauge("idempotency.entries", entries, ConcurrentHashMap::size);
+    }
+
+    /**
+     * Runs {@code action} once per {@code scope} and key. The record is kept on the shard of
+     * {@code accountNumber}, which must be the shard {@code action} writes to for {@link #complete}
+     * to commit with it. Only responses accepted by {@code replayable} are kept, so transient
+     * failures can be retried with the same key.
+     *
+     * @throws IdempotencyConflictException if the key was used for a different request, or its
+     *                                      first attempt is still running after the wait timeout
+     */
+    public <T> T execute(String scope, String key, String accountNumber, Object request, Class<T> type,
+                         Predicate<T> replayable, Supplier<T> action) {
+        if (key == null || key.isBlank()) {
+            return action.get();
+        }
+        // The table is shared by every service using the schema, so keys carry the service name.
+        String id = namespace + ":" + scope + ":" + key;
+        String requestHash = hash(request);
+        CompletableFuture<Object> pending = new CompletableFuture<>();
+        Entry claim = new Entry(requestHash, pending, Long.MAX_VALUE);
+        while (true) {
+            Entry existing = entries.putIfAbsent(id, claim);
+            if (existing == null) {
+                break;
+            }
+            if (existing.expiresAt() > System.currentTimeMillis()) {
+                if (!existing.requestHash().equals(requestHash)) {
+                    conflicts.increment();
+                    throw IdempotencyConflictException.reused();
+                }
+                Object response = await(existing.response());
+                memoryHits.increment();
+                return type.cast(response);
+            }
+            if (entries.replace(id, existing, claim)) {
+                break;
+            }
+        }
+
+        try {
+            T response = shardRouter.onShardOf(accountNumber, () -> claimOrReplay(id, requestHash, type));
+            if (response != null) {
+                databaseHits.increment();
+            } else {
+                response = run(id, accountNumber, type, replayable, action);
+                if (!replayable.test(response)) {
+                    entries.remove(id, claim);
+                    pending.complete(response);
+                    return response;
+                }
+            }
+            if (entries.size() > maxEntries) {
+                // Over capacity: serve later replays from the table instead of memory.
+                entries.remove(id, claim);
+            } else {
+                entries.replace(id, claim, new Entry(requestHash, pending, System.currentTimeMillis() + ttl.toMillis()));
+            }
+            pending.complete(response);
+            return response;
+        } catch (RuntimeException e) {
+            entries.remove(id, claim);
+            pending.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    /**
+     * Stores {@code response} for the key being executed on this thread as part of the current
+     * transaction, so it commits or rolls back with the changes it reports. Does nothing outside
+     * {@link #execute}, outside a transaction, or for responses that are not replayable.
+     */
+    public <T> T complete(T response) {
+        Claim claim = CURRENT.get();
+        if (claim == null || claim.completed || !claim.replayable.test(response)
+                || !TransactionSynchronizationManager.isActualTransactionActive()) {
+            return response;
+        }
+        if (repository.complete(claim.id, COMPLETED, serialize(claim.id, response)) != 1) {
+            throw new IllegalStateException("Idempotency claim " + claim.id + " was lost");
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                claim.completed = status == STATUS_COMMITTED;
+            }
+        });
+        return response;
+    }
+
+    @Scheduled(fixedDelayString = "${banking.idempotency.sweep-interval-ms:60000}")
+    public void evictExpired() {
+        long now = System.currentTimeMillis();
+        entries.values().removeIf(entry -> entry.expiresAt() <= now);
+        shardRouter.forEachShard(shard -> {
+            try {
+                int deleted = repository.deleteExpired(LocalDateTime.now());
+                if (deleted > 0) {
+                    log.debug("Deleted {} expired idempotency records", deleted);
+                }
+            } catch (Exception e) {
+                log.warn("Failed to delete expired idempotency records: {}", e.getMessage());
+            }
+        });
+    }
+
+    /**
+     * Claims the key, returning null, or returns the response of the attempt that already holds it.
+     * A claim is never taken over: an attempt that died mid-flight may have made its changes, so
+     * its key stays unusable until the record expires.
+     */
+    private <T> T claimOrReplay(String id, String requestHash, Class<T> type) {
+        long deadline = System.nanoTime() + waitTimeout.toNanos();
+        boolean held = false;
+        while (true) {
+            if (!held && claim(id, requestHash)) {
+                return null;
+            }
+            Optional<IdempotencyRecord> stored = repository.findByIdempotencyKey(id);
+            held = stored.isPresent();
+            if (held) {
+                IdempotencyRecord record = stored.get();
+                if (!requestHash.equals(record.getRequestHash())) {
+                    conflicts.increment();
+                    throw IdempotencyConflictException.reused();
+                }
+                if (!record.getExpiresAt().isAfter(LocalDateTime.now())) {
+                    repository.deleteExpiredKey(id, LocalDateTime.now());
+                    held = false;
+                    continue;
+                }
+                if (COMPLETED.equals(record.getStatus())) {
+                    return deserialize(record, type);
+                }
+            }
+            if (System.nanoTime() > deadline) {
+                conflicts.increment();
+                throw IdempotencyConflictException.inProgress();
+            }
+            try {
+                Thread.sleep(POLL_INTERVAL_MS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw IdempotencyConflictException.inProgress();
+            }
+        }
+    }
+
+    private boolean claim(String id, String requestHash) {
+        LocalDateTime now = LocalDateTime.now();
+        try {
+            claimTemplate.executeWithoutResult(status -> jdbcTemplate.update(INSERT_CLAIM, id, requestHash,
+                    Timestamp.valueOf(now), Timestamp.valueOf(now.plus(ttl))));
+            return true;
+        } catch (DuplicateKeyException e) {
+            return false;
+        }
+    }
+
+    private <T> T run(String id, String accountNumber, Class<T> type, Predicate<T> replayable, Supplier<T> action) {
+        Claim claim = new Claim(id, response -> type.isInstance(response) && replayable.test(type.cast(response)));
+        T response;
+        CURRENT.set(claim);
+        try {
+            response = action.get();
+        } catch (RuntimeException e) {
+            shardRouter.onShardOf(accountNumber, () -> release(id));
+            throw e;
+        } finally {
+            CURRENT.remove();
+        }
+        if (claim.completed) {
+            return response;
+        }
+        if (replayable.test(response)) {
+            String body = serialize(id, response);
+            // Left PENDING if this fails, so repeats are refused rather than run a second time.
+            shardRouter.onShardOf(accountNumber, () -> claimTemplate.execute(status ->
+                    repository.complete(id, COMPLETED, body)));
+        } else {
+            shardRouter.onShardOf(accountNumber, () -> release(id));
+        }
+        return response;
+    }
+
+    private int release(String id) {
+        try {
+            return claimTemplate.execute(status -> repository.release(id, PENDING));
+        } catch (Exception e) {
+            log.error("Failed to release idempotency claim {}: {}", id, e.getMessage());
+            return 0;
+        }
+    }
+
+    private String serialize(String id, Object response) {
+        try {
+            return objectMapper.writeValueAsString(response);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Unserializable response for idempotency key " + id, e);
+        }
+    }
+
+    private <T> T deserialize(IdempotencyRecord record, Class<T> type) {
+        try {
+            return objectMapper.readValue(record.getResponseBody(), type);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Unreadable idempotency record " + record.getIdempotencyKey(), e);
+        }
+    }
+
+    private String hash(Object request) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(objectMapper.writeValueAsBytes(request));
+            return HexFormat.of().formatHex(digest);
+        } catch (JsonProcessingException | NoSuchAlgorithmException e) {
+            throw new IllegalArgumentException("Unhashable idempotent request", e);
+        }
+    }
+
+    // Waits for an attempt running on this instance, for no longer than a repeat reaching another one would.
+    private Object await(CompletableFuture<Object> response) {
+        try {
+            return response.get(waitTimeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            conflicts.increment();
+            throw IdempotencyConflictException.inProgress();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw IdempotencyConflictException.inProgress();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    private record Entry(String requestHash, CompletableFuture<Object> response, long expiresAt) {
+    }
+
+    private static final class Claim {
+        private final String id;
+        private final Predicate<Object> replayable;
+        private boolean completed;
+
+        private Claim(String id, Predicate<Object> replayable) {
+            this.id = id;
+            this.replayable = replayable;
+        }
+    }
+}
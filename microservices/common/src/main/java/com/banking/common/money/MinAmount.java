@@ -0,0 +1,27 @@
+package com.banking.common.money;
+
+import jakarta.validation.Constraint;
+import jakarta.validation.Payload;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * The {@link Money} equivalent of {@code @DecimalMin}, inclusive of {@link #value()}.
+ */
+@Documented
+@Constraint(validatedBy = MinAmountValidator.class)
+@Target({ElementType.FIELD, ElementType.PARAMETER})
+@Retention(RetentionPolicy.RUNTIME)
+public @interface MinAmount {
+    String value();
+
+    String message() default "Amount is below the minimum";
+
+    Class<?>[] groups() default {};
+
+    Class<? extends Payload>[] payload() default {};
+}
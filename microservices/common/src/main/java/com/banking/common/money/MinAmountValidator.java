@@ -0,0 +1,18 @@
+package com.banking.common.money;
+
+import jakarta.validation.ConstraintValidator;
+import jakarta.validation.ConstraintValidatorContext;
+
+public class MinAmountValidator implements ConstraintValidator<MinAmount, Money> {
+    private long minimum;
+
+    @Override
+    public void initialize(MinAmount constraint) {
+        minimum = Money.valueOf(constraint.value()).minorUnits();
+    }
+
+    @Override
+    public boolean isValid(Money amount, ConstraintValidatorContext context) {
+        return amount == null || amount.minorUnits() >= minimum;
+    }
+}
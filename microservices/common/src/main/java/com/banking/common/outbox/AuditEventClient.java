@@ -0,0 +1,13 @@
+package com.banking.common.outbox;
+
+import org.springframework.cloud.openfeign.FeignClient;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+
+import java.util.List;
+
+@FeignClient(name = "audit-service", contextId = "auditEventClient")
+public interface AuditEventClient {
+    @PostMapping("/internal/audit/events")
+    void publish(@RequestBody List<DomainEvent> events);
+}
@@ -0,0 +1,22 @@
+package com.banking.common.outbox;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class DomainEvent {
+    private String eventId;
+    private String eventType;
+    private String aggregateType;
+    private String aggregateId;
+    private LocalDateTime occurredAt;
+    private JsonNode payload;
+}
@@ -0,0 +1,39 @@
+package com.banking.common.outbox;
+
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.NoRepositoryBean;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@NoRepositoryBean
+public interface OutboxEventRepository<E extends OutboxEvent> extends JpaRepository<E, Long> {
+    // NOWAIT: a relay on another instance already owns the head of the outbox.
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "0"))
+    @Query("select e from #{#entityName} e where e.publishedAt is null order by e.id")
+    List<E> findUnpublishedForUpdate(Pageable pageable);
+
+    @Modifying
+    @Query("update #{#entityName} e set e.leaseUntil = :leaseUntil where e.id in :ids")
+    int lease(@Param("ids") Collection<Long> ids, @Param("leaseUntil") LocalDateTime leaseUntil);
+
+    @Modifying
+    @Query("update #{#entityName} e set e.publishedAt = :publishedAt, e.leaseUntil = null where e.id in :ids")
+    int markPublished(@Param("ids") Collection<Long> ids, @Param("publishedAt") LocalDateTime publishedAt);
+
+    @Modifying
+    @Transactional
+    @Query("delete from #{#entityName} e where e.publishedAt < :cutoff")
+    int deletePublishedBefore(@Param("cutoff") LocalDateTime cutoff);
+}
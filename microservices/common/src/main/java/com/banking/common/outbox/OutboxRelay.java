@@ -0,0 +1,177 @@
+package com.banking.common.outbox;
+
+import com.banking.common.sharding.ShardRouter;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.PessimisticLockingFailureException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Delivers outbox events to notification-service and audit-service in batches, oldest first.
+ * A batch is claimed by leasing it in a short transaction, pushed to every consumer with no
+ * transaction open, and only then marked published, so any failure leaves it to be resent
+ * (at-least-once; consumers dedupe on {@code eventId}). Delivery stops at the first failing batch,
+ * which keeps events in commit order and therefore in order per account. Only one instance relays
+ * at a time: the others find the head of the outbox leased, or fail their {@code NOWAIT} lock
+ * while it is being claimed, and skip the poll. A lease left by a crashed relay lapses on its own.
+ */
+@Component
+@Slf4j
+public class OutboxRelay {
+    private final OutboxEventRepository<?> repository;
+    private final NotificationEventClient notificationEventClient;
+    private final AuditEventClient auditEventClient;
+    private final ObjectMapper objectMapper;
+    private final ShardRouter shardRouter;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean enabled;
+    private final int batchSize;
+    private final Duration retention;
+    private final Duration lease;
+    private final Counter published;
+    private final Counter failures;
+    private final Timer lag;
+
+    public OutboxRelay(OutboxEventRepository<?> repository,
+                       NotificationEventClient notificationEventClient,
+                       AuditEventClient auditEventClient,
+                       ObjectMapper objectMapper,
+                       ShardRouter shardRouter,
+                       PlatformTransactionManager transactionManager,
+                       MeterRegistry meterRegistry,
+                       @Value("${banking.outbox.relay.enabled:true}") boolean enabled,
+                       @Value("${banking.outbox.relay.batch-size:500}") int batchSize,
+                       @Value("${banking.outbox.retention:7d}") Duration retention,
+                       @Value("${banking.outbox.relay.lease:2m}") Duration lease) {
+        this.repository = repository;
+        this.notificationEventClient = notificationEventClient;
+        this.auditEventClient = auditEventClient;
+        this.objectMapper = objectMapper;
+        this.shardRouter = shardRouter;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        // Read committed avoids gap locks, so producers keep inserting while a batch is claimed.
+        this.transactionTemplate.setIsolationLevel(TransactionDefinition.ISOLATION_READ_COMMITTED);
+        this.enabled = enabled;
+        this.batchSize = Math.max(1, batchSize);
+        this.retention = retention;
+        this.lease = lease;
+        this.published = meterRegistry.counter("outbox.relay.published");
+        this.failures = meterRegistry.counter("outbox.relay.failures");
+        this.lag = Timer.builder("outbox.relay.lag")
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${banking.outbox.relay.poll-interval-ms:200}")
+    public void relay() {
+        if (!enabled) {
+            return;
+        }
+        // Each shard keeps its own outbox for the rows it holds.
+        shardRouter.forEachShard(shard -> {
+            try {
+                int sent;
+                do {
+                    sent = relayBatch();
+                } while (sent == batchSize);
+            } catch (PessimisticLockingFailureException e) {
+                log.debug("Outbox is being relayed by another instance");
+            } catch (Exception e) {
+                failures.increment();
+                log.warn("Outbox relay failed, will retry: {}", e.getMessage());
+            }
+        });
+    }
+
+    private int relayBatch() {
+        List<? extends OutboxEvent> batch = transactionTemplate.execute(status -> claimBatch());
+        if (batch == null || batch.isEmpty()) {
+            return 0;
+        }
+        List<Long> ids = new ArrayList<>(batch.size());
+        for (OutboxEvent event : batch) {
+            ids.add(event.getId());
+        }
+        try {
+            List<DomainEvent> events = new ArrayList<>(batch.size());
+            for (OutboxEvent event : batch) {
+                events.add(toDomainEvent(event));
+            }
+            notificationEventClient.publish(events);
+            auditEventClient.publish(events);
+        } catch (RuntimeException e) {
+            releaseLease(ids);
+            throw e;
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        transactionTemplate.executeWithoutResult(status -> repository.markPublished(ids, now));
+        published.increment(batch.size());
+        lag.record(Duration.between(batch.get(0).getOccurredAt(), now));
+        return batch.size();
+    }
+
+    private List<? extends OutboxEvent> claimBatch() {
+        List<? extends OutboxEvent> batch = repository.findUnpublishedForUpdate(PageRequest.of(0, batchSize));
+        LocalDateTime now = LocalDateTime.now();
+        for (OutboxEvent event : batch) {
+            if (event.getLeaseUntil() != null && event.getLeaseUntil().isAfter(now)) {
+                log.debug("Outbox is being relayed by another instance");
+                return List.of();
+            }
+        }
+        if (!batch.isEmpty()) {
+            repository.lease(batch.stream().map(OutboxEvent::getId).toList(), now.plus(lease));
+        }
+        return batch;
+    }
+
+    // Lets the next poll retry at once instead of waiting out the lease.
+    private void releaseLease(List<Long> ids) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> repository.lease(ids, null));
+        } catch (Exception e) {
+            log.warn("Could not release outbox lease, it will lapse: {}", e.getMessage());
+        }
+    }
+
+    private DomainEvent toDomainEvent(OutboxEvent event) {
+        try {
+            return DomainEvent.builder()
+                    .eventId(event.getEventId())
+                    .eventType(event.getEventType())
+                    .aggregateType(event.getAggregateType())
+                    .aggregateId(event.getAggregateId())
+                    .occurredAt(event.getOccurredAt())
+                    .payload(objectMapper.readTree(event.getPayload()))
+                    .build();
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Corrupt outbox payload for event " + event.getEventId(), e);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${banking.outbox.purge-interval-ms:3600000}")
+    public void purgePublished() {
+        shardRouter.forEachShard(shard -> {
+            int purged = repository.deletePublishedBefore(LocalDateTime.now().minus(retention));
+            if (purged > 0) {
+                log.info("Purged {} published outbox events", purged);
+            }
+        });
+    }
+}
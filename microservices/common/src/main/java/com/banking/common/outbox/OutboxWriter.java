@@ -0,0 +1,70 @@
+package com.banking.common.outbox;
+
+import com.banking.common.id.SnowflakeIdGenerator;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Appends domain events to a service's outbox table. Appends must run inside the transaction that
+ * makes the change they describe, so an event exists exactly when its change was committed;
+ * {@link OutboxRelay} delivers them afterwards.
+ */
+public class OutboxWriter {
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+    private final SnowflakeIdGenerator idGenerator;
+    private final String insertEvent;
+    private final String eventIdPrefix;
+
+    /**
+     * @param eventIdPrefix consumers dedupe on event ids from every service, so each service
+     *                      passes its own prefix to keep them apart
+     */
+    public OutboxWriter(JdbcTemplate jdbcTemplate, ObjectMapper objectMapper, SnowflakeIdGenerator idGenerator,
+                        String table, String eventIdPrefix) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.objectMapper = objectMapper;
+        this.idGenerator = idGenerator;
+        this.insertEvent = "INSERT INTO " + table
+                + " (event_id, event_type, aggregate_type, aggregate_id, payload, occurred_at) VALUES (?, ?, ?, ?, ?, ?)";
+        this.eventIdPrefix = eventIdPrefix;
+    }
+
+    public OutboxEvent event(String aggregateType, String aggregateId, String eventType, Object payload) {
+        try {
+            return OutboxEvent.builder()
+                    .eventId(idGenerator.next(eventIdPrefix))
+                    .eventType(eventType)
+                    .aggregateType(aggregateType)
+                    .aggregateId(aggregateId)
+                    .payload(objectMapper.writeValueAsString(payload))
+                    .occurredAt(LocalDateTime.now())
+                    .build();
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Unserializable " + eventType + " payload", e);
+        }
+    }
+
+    public void appendAll(List<OutboxEvent> events) {
+        if (events.isEmpty()) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isActualTransactionActive()) {
+            throw new IllegalStateException("Outbox events must be written inside the transaction that produced them");
+        }
+        jdbcTemplate.batchUpdate(insertEvent, events, events.size(), (ps, event) -> {
+            ps.setString(1, event.getEventId());
+            ps.setString(2, event.getEventType());
+            ps.setString(3, event.getAggregateType());
+            ps.setString(4, event.getAggregateId());
+            ps.setString(5, event.getPayload());
+            ps.setTimestamp(6, Timestamp.valueOf(event.getOccurredAt()));
+        });
+    }
+}
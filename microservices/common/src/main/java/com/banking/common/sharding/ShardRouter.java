@@ -0,0 +1,109 @@
+package com.banking.common.sharding;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.Function;
+import java.util.function.IntConsumer;
+import java.util.function.Supplier;
+
+/**
+ * Maps account numbers to the shards listed in {@code banking.sharding.urls} and selects the shard
+ * that connections are taken from on the current thread. Account-service keeps each account on its
+ * shard; transaction-service stores a transfer on the shard of its source account, so an account's
+ * sent transfers sit on one shard and its received ones on any. A transaction stays on the shard
+ * that was selected when it began, so the shard must be chosen before the transaction starts. With
+ * no shards configured everything runs against the single {@code spring.datasource} database.
+ */
+@Component
+public class ShardRouter {
+    private static final ThreadLocal<Integer> CURRENT = new ThreadLocal<>();
+
+    private final int shardCount;
+
+    public ShardRouter(@Value("${banking.sharding.urls:}") String urls) {
+        this.shardCount = Math.max(1, parseUrls(urls).size());
+    }
+
+    public static List<String> parseUrls(String urls) {
+        return Arrays.stream(urls.split(","))
+                .map(String::trim)
+                .filter(url -> !url.isEmpty())
+                .toList();
+    }
+
+    /**
+     * The shard selected on this thread, or null to use the default shard.
+     */
+    public static Integer currentShard() {
+        return CURRENT.get();
+    }
+
+    public boolean isSharded() {
+        return shardCount > 1;
+    }
+
+    public int shardCount() {
+        return shardCount;
+    }
+
+    // The mapping must stay fixed once data is written: adding or reordering shards moves accounts.
+    public int shardOf(String accountNumber) {
+        if (shardCount == 1) {
+            return 0;
+        }
+        int h = accountNumber.hashCode();
+        h = (h ^ (h >>> 16)) * 0x85EBCA6B;
+        h = (h ^ (h >>> 13)) * 0xC2B2AE35;
+        return Math.floorMod(h ^ (h >>> 16), shardCount);
+    }
+
+    public boolean sameShard(String accountNumber, String otherAccountNumber) {
+        return shardOf(accountNumber) == shardOf(otherAccountNumber);
+    }
+
+    public <T> T onShard(int shard, Supplier<T> action) {
+        if (shardCount == 1) {
+            return action.get();
+        }
+        Integer previous = CURRENT.get();
+        CURRENT.set(shard);
+        try {
+            return action.get();
+        } finally {
+            if (previous == null) {
+                CURRENT.remove();
+            } else {
+                CURRENT.set(previous);
+            }
+        }
+    }
+
+    public <T> T onShardOf(String accountNumber, Supplier<T> action) {
+        return onShard(shardOf(accountNumber), action);
+    }
+
+    public void forEachShard(IntConsumer action) {
+        for (int shard = 0; shard < shardCount; shard++) {
+            int current = shard;
+            onShard(shard, () -> {
+                action.accept(current);
+                return null;
+            });
+        }
+    }
+
+    public <T> Map<Integer, List<T>> groupByShard(Collection<T> items, Function<T, String> accountNumber) {
+        Map<Integer, List<T>> groups = new TreeMap<>();
+        for (T item : items) {
+            groups.computeIfAbsent(shardOf(accountNumber.apply(item)), shard -> new ArrayList<>()).add(item);
+        }
+        return groups;
+    }
+}
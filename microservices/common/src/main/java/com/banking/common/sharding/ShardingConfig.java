@@ -0,0 +1,86 @@
+package com.banking.common.sharding;
+
+import com.zaxxer.hikari.HikariDataSource;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernateProperties;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernateSettings;
+import org.springframework.boot.autoconfigure.orm.jpa.JpaProperties;
+import org.springframework.boot.orm.jpa.EntityManagerFactoryBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.orm.jpa.LocalContainerEntityManagerFactoryBean;
+import org.springframework.orm.jpa.persistenceunit.PersistenceManagedTypes;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Replaces the single {@code spring.datasource} pool with one pool per URL in
+ * {@code banking.sharding.urls}, sharing the configured credentials and driver.
+ */
+@Configuration
+@ConditionalOnExpression("!'${banking.sharding.urls:}'.isBlank()")
+@Slf4j
+public class ShardingConfig {
+
+    @Bean
+    public ShardRoutingDataSource dataSource(DataSourceProperties properties,
+                                             @Value("${banking.sharding.urls}") String urls) {
+        List<DataSource> shards = new ArrayList<>();
+        for (String url : ShardRouter.parseUrls(urls)) {
+            HikariDataSource shard = properties.initializeDataSourceBuilder()
+                    .type(HikariDataSource.class)
+                    .url(url)
+                    .build();
+            shard.setPoolName("shard-" + shards.size());
+            shards.add(shard);
+        }
+        log.info("Routing across {} shards", shards.size());
+        return new ShardRoutingDataSource(shards);
+    }
+
+    /**
+     * Hibernate only manages the schema of the database it connects to, which is shard 0. Once that
+     * is done, the same settings are applied to every other shard with a throwaway factory.
+     */
+    @Bean
+    public static BeanPostProcessor shardSchemaInitializer(ObjectProvider<EntityManagerFactoryBuilder> builder,
+                                                           ObjectProvider<JpaProperties> jpaProperties,
+                                                           ObjectProvider<HibernateProperties> hibernateProperties,
+                                                           ObjectProvider<PersistenceManagedTypes> managedTypes,
+                                                           ObjectProvider<ShardRoutingDataSource> dataSource) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof LocalContainerEntityManagerFactoryBean && "entityManagerFactory".equals(beanName)) {
+                    Map<String, Object> settings = hibernateProperties.getObject().determineHibernateProperties(
+                            jpaProperties.getObject().getProperties(), new HibernateSettings().ddlAuto(() -> "none"));
+                    // Dropping a shard's schema belongs to its own lifecycle, not to this throwaway factory.
+                    if ("create-drop".equals(settings.get(AvailableSettings.HBM2DDL_AUTO))) {
+                        settings.put(AvailableSettings.HBM2DDL_AUTO, "create");
+                    }
+                    List<DataSource> shards = dataSource.getObject().shards();
+                    for (int shard = 1; shard < shards.size(); shard++) {
+                        LocalContainerEntityManagerFactoryBean factory = builder.getObject()
+                                .dataSource(shards.get(shard))
+                                .managedTypes(managedTypes.getObject())
+                                .properties(settings)
+                                .persistenceUnit("shard-" + shard)
+                                .build();
+                        factory.afterPropertiesSet();
+                        factory.destroy();
+                    }
+                }
+                return bean;
+            }
+        };
+    }
+}
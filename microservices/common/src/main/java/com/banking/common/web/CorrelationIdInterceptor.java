@@ -0,0 +1,17 @@
+package com.banking.common.web;
+
+import feign.RequestInterceptor;
+import feign.RequestTemplate;
+import org.slf4j.MDC;
+import org.springframework.stereotype.Component;
+
+@Component
+public class CorrelationIdInterceptor implements RequestInterceptor {
+    @Override
+    public void apply(RequestTemplate template) {
+        String correlationId = MDC.get(CorrelationIdFilter.MDC_KEY);
+        if (correlationId != null) {
+            template.header(CorrelationIdFilter.HEADER, correlationId);
+        }
+    }
+}
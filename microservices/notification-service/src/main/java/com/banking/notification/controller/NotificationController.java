@@ -1,20 +1,55 @@
 package com.banking.notification.controller;
 
+import com.banking.notification.dto.DomainEvent;
 import com.banking.notification.dto.NotificationRequest;
+import com.banking.notification.dto.NotificationResult;
+import com.banking.notification.service.DomainEventConsumer;
+import com.banking.notification.service.NotificationDispatcher;
 import com.banking.notification.service.NotificationService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.List;
+
+/**
+ * Accepts notifications and domain events from the other services. Not routed by the gateway.
+ */
 @RestController
-@RequestMapping("/api/notifications")
+@RequestMapping("/internal/notifications")
 @RequiredArgsConstructor
 public class NotificationController {
+    private static final int MAX_BATCH_SIZE = 1000;
+
+    private final NotificationDispatcher notificationDispatcher;
     private final NotificationService notificationService;
+    private final DomainEventConsumer domainEventConsumer;
 
     @PostMapping("/send")
     public ResponseEntity<String> sendNotification(@RequestBody NotificationRequest request) {
-        notificationService.sendNotification(request);
-        return ResponseEntity.ok("Notification sent successfully");
+        if (request.getType() == null || request.getRecipient() == null || request.getRecipient().isBlank()) {
+            return ResponseEntity.badRequest().body("Notification type and recipient are required");
+        }
+        if (!notificationDispatcher.enqueue(request)) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body("Notification queue is full");
+        }
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body("Notification accepted for delivery");
+    }
+
+    @PostMapping("/send/batch")
+    public ResponseEntity<List<NotificationResult>> sendBatch(@RequestBody List<NotificationRequest> requests) {
+        if (requests.isEmpty() || requests.size() > MAX_BATCH_SIZE) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(notificationService.sendBatch(requests));
+    }
+
+    @PostMapping("/events")
+    public ResponseEntity<String> consumeEvents(@RequestBody List<DomainEvent> events) {
+        if (!domainEventConsumer.consume(events)) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body("Notification queue is full");
+        }
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body("Events accepted");
     }
 }
\ No newline at end of file
@@ -0,0 +1,13 @@
+package com.banking.notification.dto;
+
+import lombok.Builder;
+import lombok.Data;
+
+@Data
+@Builder
+public class NotificationResult {
+    private int index;
+    private String recipient;
+    private String status;
+    private String error;
+}
@@ -0,0 +1,99 @@
+package com.banking.notification.service;
+
+import com.banking.notification.dto.DomainEvent;
+import com.banking.notification.dto.NotificationRequest;
+import com.fasterxml.jackson.databind.JsonNode;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Turns relayed domain events into customer notifications. Events are delivered at least once,
+ * so the ids of recently handled events are remembered and redeliveries are skipped.
+ */
+@Service
+@Slf4j
+public class DomainEventConsumer {
+    private static final String BALANCE_CHANGED = "BalanceChanged";
+
+    private final NotificationDispatcher notificationDispatcher;
+    private final ReentrantLock processedLock = new ReentrantLock();
+    private final Map<String, Boolean> processed;
+    private final Counter consumed;
+    private final Counter duplicates;
+
+    public DomainEventConsumer(NotificationDispatcher notificationDispatcher,
+                               MeterRegistry meterRegistry,
+                               @Value("${banking.events.dedup-capacity:100000}") int dedupCapacity) {
+        this.notificationDispatcher = notificationDispatcher;
+        this.processed = new LinkedHashMap<>(1024, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Boolean> eldest) {
+                return size() > dedupCapacity;
+            }
+        };
+        this.consumed = meterRegistry.counter("notification.events.consumed");
+        this.duplicates = meterRegistry.counter("notification.events.duplicates");
+    }
+
+    /**
+     * Returns false when the notification queue fills up; the sender retries the batch and the
+     * events handled so far are skipped as duplicates.
+     */
+    public boolean consume(List<DomainEvent> events) {
+        for (DomainEvent event : events) {
+            if (isProcessed(event.getEventId())) {
+                duplicates.increment();
+                continue;
+            }
+            NotificationRequest notification = toNotification(event);
+            if (notification != null && !notificationDispatcher.enqueue(notification)) {
+                return false;
+            }
+            markProcessed(event.getEventId());
+            consumed.increment();
+        }
+        return true;
+    }
+
+    private NotificationRequest toNotification(DomainEvent event) {
+        JsonNode payload = event.getPayload();
+        if (!BALANCE_CHANGED.equals(event.getEventType()) || payload == null || !payload.hasNonNull("email")) {
+            return null;
+        }
+        String accountNumber = payload.path("accountNumber").asText();
+        String change = "CREDIT".equals(payload.path("change").asText()) ? "credited" : "debited";
+        NotificationRequest notification = new NotificationRequest();
+        notification.setType(NotificationRequest.NotificationType.EMAIL);
+        notification.setRecipient(payload.get("email").asText());
+        notification.setSubject("Account " + accountNumber + " " + change);
+        notification.setMessage("Your account " + accountNumber + " was " + change + " with "
+                + payload.path("amount").asText() + ". Available balance: " + payload.path("balance").asText() + ".");
+        return notification;
+    }
+
+    private boolean isProcessed(String eventId) {
+        processedLock.lock();
+        try {
+            return processed.containsKey(eventId);
+        } finally {
+            processedLock.unlock();
+        }
+    }
+
+    private void markProcessed(String eventId) {
+        processedLock.lock();
+        try {
+            processed.put(eventId, Boolean.TRUE);
+        } finally {
+            processedLock.unlock();
+        }
+    }
+}
@@ -0,0 +1,128 @@
+package com.banking.notification.service;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.SimpleMailMessage;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Collects outgoing emails for up to {@code window-ms} (or {@code max-size} messages) and sends
+ * each batch with a single {@link JavaMailSender#send(SimpleMailMessage...)} call, which delivers the
+ * whole batch over one SMTP connection instead of connecting, negotiating TLS and authenticating
+ * per email. {@code connections} bounds how many batches are in flight at once.
+ */
+@Component
+@Slf4j
+public class EmailBatcher {
+    private final JavaMailSender mailSender;
+    private final BlockingQueue<PendingEmail> queue = new LinkedBlockingQueue<>();
+    private final long windowNanos;
+    private final int maxBatchSize;
+    private final List<Thread> flushers = new ArrayList<>();
+    private final DistributionSummary batchSizes;
+    private volatile boolean running = true;
+
+    public EmailBatcher(JavaMailSender mailSender,
+                        MeterRegistry meterRegistry,
+                        @Value("${banking.notification.email.batch.window-ms:20}") long windowMs,
+                        @Value("${banking.notification.email.batch.max-size:50}") int maxBatchSize,
+                        @Value("${banking.notification.email.batch.connections:2}") int connections) {
+        this.mailSender = mailSender;
+        this.windowNanos = TimeUnit.MILLISECONDS.toNanos(windowMs);
+        this.maxBatchSize = Math.max(1, maxBatchSize);
+        this.batchSizes = DistributionSummary.builder("notification.email.batch.size").register(meterRegistry);
+        for (int i = 0; i < Math.max(1, connections); i++) {
+            flushers.add(Thread.ofVirtual().name("email-batcher-" + i).unstarted(this::flushLoop));
+        }
+    }
+
+    @PostConstruct
+    public void start() {
+        flushers.forEach(Thread::start);
+    }
+
+    public CompletableFuture<Void> submit(SimpleMailMessage message) {
+        PendingEmail pending = new PendingEmail(message, new CompletableFuture<>());
+        queue.add(pending);
+        return pending.result();
+    }
+
+    private void flushLoop() {
+        List<PendingEmail> batch = new ArrayList<>(maxBatchSize);
+        while (running) {
+            try {
+                batch.add(queue.take());
+                long deadline = System.nanoTime() + windowNanos;
+                while (batch.size() < maxBatchSize) {
+                    queue.drainTo(batch, maxBatchSize - batch.size());
+                    long remaining = deadline - System.nanoTime();
+                    if (batch.size() >= maxBatchSize || remaining <= 0) {
+                        break;
+                    }
+                    PendingEmail next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+                send(batch);
+            } catch (InterruptedException e) {
+                batch.forEach(pending -> pending.result().completeExceptionally(e));
+                return;
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void send(List<PendingEmail> batch) {
+        SimpleMailMessage[] messages = new SimpleMailMessage[batch.size()];
+        for (int i = 0; i < messages.length; i++) {
+            messages[i] = batch.get(i).message();
+        }
+        batchSizes.record(messages.length);
+        try {
+            mailSender.send(messages);
+            batch.forEach(pending -> pending.result().complete(null));
+        } catch (MailSendException e) {
+            // Individual failures are keyed by the original message; everything else was delivered.
+            Map<Object, Exception> failed = e.getFailedMessages();
+            for (PendingEmail pending : batch) {
+                Exception failure = failed.get(pending.message());
+                if (failure != null) {
+                    pending.result().completeExceptionally(failure);
+                } else if (failed.isEmpty()) {
+                    pending.result().completeExceptionally(e);
+                } else {
+                    pending.result().complete(null);
+                }
+            }
+        } catch (Exception e) {
+            log.warn("Email batch of {} failed: {}", messages.length, e.getMessage());
+            batch.forEach(pending -> pending.result().completeExceptionally(e));
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        running = false;
+        flushers.forEach(Thread::interrupt);
+    }
+
+    private record PendingEmail(SimpleMailMessage message, CompletableFuture<Void> result) {
+    }
+}
@@ -0,0 +1,178 @@
+package com.banking.notification.service;
+
+import com.banking.notification.dto.NotificationRequest;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Queues notifications per channel and sends them on virtual threads, with at most
+ * {@code concurrency} sends in flight per channel. Failed sends are re-queued with exponential
+ * backoff until {@code max-attempts} is reached.
+ */
+@Component
+@Slf4j
+public class NotificationDispatcher {
+    private final NotificationService notificationService;
+    private final MeterRegistry meterRegistry;
+    private final Map<NotificationRequest.NotificationType, ChannelWorker> workers =
+            new EnumMap<>(NotificationRequest.NotificationType.class);
+    private final ExecutorService senders = Executors.newVirtualThreadPerTaskExecutor();
+    private final ScheduledExecutorService retryScheduler = Executors.newSingleThreadScheduledExecutor(
+            Thread.ofPlatform().name("notification-retry").daemon().factory());
+    private final int maxAttempts;
+    private final long initialBackoffMs;
+    private final long maxBackoffMs;
+    private volatile boolean running = true;
+
+    public NotificationDispatcher(NotificationService notificationService,
+                                  MeterRegistry meterRegistry,
+                                  @Value("${banking.notification.queue-capacity:10000}") int queueCapacity,
+                                  @Value("${banking.notification.email.concurrency:64}") int emailConcurrency,
+                                  @Value("${banking.notification.sms.concurrency:32}") int smsConcurrency,
+                                  @Value("${banking.notification.retry.max-attempts:5}") int maxAttempts,
+                                  @Value("${banking.notification.retry.initial-backoff-ms:500}") long initialBackoffMs,
+                                  @Value("${banking.notification.retry.max-backoff-ms:60000}") long maxBackoffMs) {
+        this.notificationService = notificationService;
+        this.meterRegistry = meterRegistry;
+        this.maxAttempts = Math.max(1, maxAttempts);
+        this.initialBackoffMs = initialBackoffMs;
+        this.maxBackoffMs = maxBackoffMs;
+        workers.put(NotificationRequest.NotificationType.EMAIL,
+                new ChannelWorker(NotificationRequest.NotificationType.EMAIL, queueCapacity, emailConcurrency));
+        workers.put(NotificationRequest.NotificationType.SMS,
+                new ChannelWorker(NotificationRequest.NotificationType.SMS, queueCapacity, smsConcurrency));
+    }
+
+    @PostConstruct
+    public void start() {
+        workers.values().forEach(ChannelWorker::start);
+    }
+
+    public boolean enqueue(NotificationRequest request) {
+        ChannelWorker worker = workers.get(request.getType());
+        return worker.offer(new Job(request, 1));
+    }
+
+    private long backoffMillis(int attempt) {
+        long backoff = initialBackoffMs << Math.min(attempt - 1, 30);
+        return Math.min(backoff, maxBackoffMs);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        running = false;
+        workers.values().forEach(ChannelWorker::stop);
+        retryScheduler.shutdownNow();
+        senders.shutdown();
+        try {
+            senders.awaitTermination(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private record Job(NotificationRequest request, int attempt) {
+    }
+
+    private final class ChannelWorker {
+        private final NotificationRequest.NotificationType channel;
+        private final BlockingQueue<Job> queue;
+        private final Semaphore permits;
+        private final Timer sendTimer;
+        private final Counter rejectedCounter;
+        private final Counter retryCounter;
+        private final Counter failedCounter;
+        private final Thread dispatcher;
+
+        private ChannelWorker(NotificationRequest.NotificationType channel, int queueCapacity, int concurrency) {
+            this.channel = channel;
+            this.queue = new LinkedBlockingQueue<>(queueCapacity);
+            this.permits = new Semaphore(Math.max(1, concurrency));
+            String tag = channel.name();
+            Gauge.builder("notification.queue.depth", queue, BlockingQueue::size)
+                    .tag("channel", tag)
+                    .register(meterRegistry);
+            this.sendTimer = Timer.builder("notification.send.latency")
+                    .tag("channel", tag)
+                    .publishPercentiles(0.5, 0.95, 0.99)
+                    .register(meterRegistry);
+            this.rejectedCounter = meterRegistry.counter("notification.rejected", "channel", tag);
+            this.retryCounter = meterRegistry.counter("notification.retries", "channel", tag);
+            this.failedCounter = meterRegistry.counter("notification.failed", "channel", tag);
+            this.dispatcher = Thread.ofVirtual().name("notification-dispatch-" + tag.toLowerCase()).unstarted(this::dispatchLoop);
+        }
+
+        private void start() {
+            dispatcher.start();
+        }
+
+        private void stop() {
+            dispatcher.interrupt();
+        }
+
+        private boolean offer(Job job) {
+            if (queue.offer(job)) {
+                return true;
+            }
+            rejectedCounter.increment();
+            return false;
+        }
+
+        private void dispatchLoop() {
+            while (running) {
+                try {
+                    Job job = queue.take();
+                    permits.acquire();
+                    senders.execute(() -> {
+                        try {
+                            send(job);
+                        } finally {
+                            permits.release();
+                        }
+                    });
+                } catch (InterruptedException e) {
+                    return;
+                }
+            }
+        }
+
+        private void send(Job job) {
+            long start = System.nanoTime();
+            try {
+                notificationService.sendNotification(job.request());
+            } catch (Exception e) {
+                if (job.attempt() >= maxAttempts) {
+                    failedCounter.increment();
+                    log.error("Giving up on {} notification to {} after {} attempts: {}",
+                            channel, job.request().getRecipient(), job.attempt(), e.getMessage());
+                    return;
+                }
+                long delay = backoffMillis(job.attempt());
+                retryCounter.increment();
+                log.warn("{} notification to {} failed (attempt {}), retrying in {} ms: {}",
+                        channel, job.request().getRecipient(), job.attempt(), delay, e.getMessage());
+                retryScheduler.schedule(() -> offer(new Job(job.request(), job.attempt() + 1)),
+                        delay, TimeUnit.MILLISECONDS);
+            } finally {
+                sendTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            }
+        }
+    }
+}
@@ -1,41 +1,82 @@
 package com.banking.notification.service;
 
 import com.banking.notification.dto.NotificationRequest;
+import com.banking.notification.dto.NotificationResult;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.mail.SimpleMailMessage;
-import org.springframework.mail.javamail.JavaMailSender;
 import org.springframework.stereotype.Service;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class NotificationService {
-    private final JavaMailSender mailSender;
+    private final EmailBatcher emailBatcher;
 
     public void sendNotification(NotificationRequest request) {
-        try {
-            switch (request.getType()) {
-                case EMAIL -> sendEmail(request);
-                case SMS -> sendSMS(request);
-                default -> log.warn("Unknown notification type: {}", request.getType());
+        switch (request.getType()) {
+            case EMAIL -> sendEmail(request);
+            case SMS -> sendSMS(request);
+            default -> log.warn("Unknown notification type: {}", request.getType());
+        }
+    }
+
+    public List<NotificationResult> sendBatch(List<NotificationRequest> requests) {
+        // Queue every email first so they share SMTP connections, then collect the outcomes.
+        List<CompletableFuture<Void>> outcomes = new ArrayList<>(requests.size());
+        for (NotificationRequest request : requests) {
+            if (request.getType() == null || request.getRecipient() == null || request.getRecipient().isBlank()) {
+                outcomes.add(CompletableFuture.failedFuture(
+                        new IllegalArgumentException("Notification type and recipient are required")));
+            } else if (request.getType() == NotificationRequest.NotificationType.EMAIL) {
+                outcomes.add(emailBatcher.submit(toMailMessage(request)));
+            } else {
+                outcomes.add(CompletableFuture.runAsync(() -> sendNotification(request), Runnable::run));
+            }
+        }
+
+        List<NotificationResult> results = new ArrayList<>(requests.size());
+        for (int i = 0; i < requests.size(); i++) {
+            NotificationResult.NotificationResultBuilder result = NotificationResult.builder()
+                    .index(i)
+                    .recipient(requests.get(i).getRecipient());
+            try {
+                outcomes.get(i).join();
+                results.add(result.status("SENT").build());
+            } catch (CompletionException e) {
+                results.add(result.status("FAILED").error(e.getCause().getMessage()).build());
             }
-        } catch (Exception e) {
-            log.error("Failed to send notification: {}", e.getMessage());
         }
+        return results;
     }
 
     private void sendEmail(NotificationRequest request) {
+        try {
+            emailBatcher.submit(toMailMessage(request)).join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+        log.info("Email sent to: {}", request.getRecipient());
+    }
+
+    private SimpleMailMessage toMailMessage(NotificationRequest request) {
         SimpleMailMessage message = new SimpleMailMessage();
         message.setTo(request.getRecipient());
         message.setSubject(request.getSubject());
         message.setText(request.getMessage());
-        mailSender.send(message);
-        log.info("Email sent to: {}", request.getRecipient());
+        return message;
     }
 
     private void sendSMS(NotificationRequest request) {
         // SMS implementation would go here
         log.info("SMS sent to: {}", request.getRecipient());
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,19 @@
+package com.banking.transaction.config;
+
+import com.banking.transaction.entity.TransactionOutboxEvent;
+import com.banking.common.id.SnowflakeIdGenerator;
+import com.banking.common.outbox.OutboxWriter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+@Configuration
+public class OutboxConfig {
+
+    @Bean
+    public OutboxWriter outboxWriter(JdbcTemplate jdbcTemplate, ObjectMapper objectMapper,
+                                     SnowflakeIdGenerator idGenerator) {
+        return new OutboxWriter(jdbcTemplate, objectMapper, idGenerator, TransactionOutboxEvent.TABLE, "TXNEVT");
+    }
+}
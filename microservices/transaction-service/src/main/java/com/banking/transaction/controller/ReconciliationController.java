@@ -0,0 +1,38 @@
+package com.banking.transaction.controller;
+
+import com.banking.transaction.dto.ReconciliationReport;
+import com.banking.transaction.service.ReconciliationService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+/**
+ * Starts reconciliation runs on demand and reports on them by job id. Not routed by the gateway;
+ * a run scans every account and transaction, so it is for operators only.
+ */
+@RestController
+@RequestMapping("/internal/reconciliation")
+@RequiredArgsConstructor
+public class ReconciliationController {
+    private final ReconciliationService reconciliationService;
+
+    @PostMapping
+    public ResponseEntity<ReconciliationReport> start() {
+        ReconciliationReport report = reconciliationService.start();
+        HttpStatus status = "202".equals(report.getResponseCode()) ? HttpStatus.ACCEPTED : HttpStatus.CONFLICT;
+        return ResponseEntity.status(status).body(report);
+    }
+
+    @GetMapping("/{jobId}")
+    public ResponseEntity<ReconciliationReport> getJob(@PathVariable String jobId) {
+        return reconciliationService.job(jobId)
+                .map(report -> {
+                    HttpStatus status = "200".equals(report.getResponseCode()) ? HttpStatus.OK :
+                                       "202".equals(report.getResponseCode()) ? HttpStatus.ACCEPTED :
+                                       HttpStatus.INTERNAL_SERVER_ERROR;
+                    return ResponseEntity.status(status).body(report);
+                })
+                .orElse(ResponseEntity.notFound().build());
+    }
+}
@@ -1,15 +1,23 @@
 package com.banking.transaction.controller;
 
+import com.banking.transaction.dto.BatchTransferRequest;
+import com.banking.transaction.dto.BatchTransferResponse;
+import com.banking.transaction.dto.TransactionHistoryResponse;
 import com.banking.transaction.dto.TransferRequest;
 import com.banking.transaction.dto.TransactionResponse;
+import com.banking.transaction.service.BatchTransferService;
+import com.banking.transaction.service.TransactionExportService;
 import com.banking.transaction.service.TransactionService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
 
@@ -18,12 +26,30 @@ import java.util.List;
 @RequiredArgsConstructor
 public class TransactionController {
     private final TransactionService transactionService;
+    private final BatchTransferService batchTransferService;
+    private final TransactionExportService transactionExportService;
 
     @PostMapping("/transfer")
-    public ResponseEntity<TransactionResponse> processTransfer(@Valid @RequestBody TransferRequest request) {
-        TransactionResponse response = transactionService.processTransfer(request);
+    public ResponseEntity<TransactionResponse> processTransfer(
+            @Valid @RequestBody TransferRequest request,
+            @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey) {
+        TransactionResponse response = transactionService.processTransfer(request, idempotencyKey);
         HttpStatus status = "200".equals(response.getResponseCode()) ? HttpStatus.OK : 
                            "404".equals(response.getResponseCode()) ? HttpStatus.NOT_FOUND : 
+                           "400".equals(response.getResponseCode()) ? HttpStatus.BAD_REQUEST : 
+                           "409".equals(response.getResponseCode()) ? HttpStatus.CONFLICT : 
+                           "422".equals(response.getResponseCode()) ? HttpStatus.UNPROCESSABLE_ENTITY : 
+                           "503".equals(response.getResponseCode()) ? HttpStatus.SERVICE_UNAVAILABLE : 
+                           HttpStatus.INTERNAL_SERVER_ERROR;
+        return ResponseEntity.status(status).body(response);
+    }
+
+    @PostMapping("/transfer/batch")
+    public ResponseEntity<BatchTransferResponse> processBatchTransfer(
+            @Valid @RequestBody BatchTransferRequest request,
+            @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey) {
+        BatchTransferResponse response = batchTransferService.processBatch(request.getTransfers(), idempotencyKey);
+        HttpStatus status = "200".equals(response.getResponseCode()) ? HttpStatus.OK : 
                            "400".equals(response.getResponseCode()) ? HttpStatus.BAD_REQUEST : 
                            HttpStatus.INTERNAL_SERVER_ERROR;
         return ResponseEntity.status(status).body(response);
@@ -39,4 +65,32 @@ public class TransactionController {
         List<TransactionResponse.TransactionInfo> history = transactionService.getTransactionHistory(accountNumber, pageable);
         return ResponseEntity.ok(history);
     }
-}
\ No newline at end of file
+
+    @GetMapping("/history/{accountNumber}/page")
+    public ResponseEntity<TransactionHistoryResponse> getTransactionHistoryPage(
+            @PathVariable String accountNumber,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "10") int size) {
+        TransactionHistoryResponse response = transactionService.getTransactionHistoryPage(accountNumber, cursor, size);
+        HttpStatus status = "200".equals(response.getResponseCode()) ? HttpStatus.OK : HttpStatus.BAD_REQUEST;
+        return ResponseEntity.status(status).body(response);
+    }
+
+    @GetMapping("/history/{accountNumber}/export")
+    public ResponseEntity<StreamingResponseBody> exportTransactionHistory(
+            @PathVariable String accountNumber,
+            @RequestParam(defaultValue = "ndjson") String format) {
+        boolean csv = "csv".equalsIgnoreCase(format);
+        if (!csv && !"ndjson".equalsIgnoreCase(format)) {
+            return ResponseEntity.badRequest().build();
+        }
+        StreamingResponseBody body = csv
+                ? out -> transactionExportService.exportCsv(accountNumber, out)
+                : out -> transactionExportService.exportNdjson(accountNumber, out);
+        return ResponseEntity.ok()
+                .contentType(csv ? new MediaType("text", "csv") : MediaType.APPLICATION_NDJSON)
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        "attachment; filename=\"statement-" + accountNumber + (csv ? ".csv\"" : ".ndjson\""))
+                .body(body);
+    }
+}
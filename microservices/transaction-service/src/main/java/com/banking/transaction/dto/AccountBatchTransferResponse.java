@@ -0,0 +1,19 @@
+package com.banking.transaction.dto;
+
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+public class AccountBatchTransferResponse {
+    private String responseCode;
+    private String responseMessage;
+    private List<Result> results;
+
+    @Data
+    public static class Result {
+        private int index;
+        private String responseCode;
+        private String responseMessage;
+    }
+}
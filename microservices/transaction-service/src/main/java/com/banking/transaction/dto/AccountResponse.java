@@ -1,8 +1,8 @@
 package com.banking.transaction.dto;
 
+import com.banking.common.money.Money;
 import lombok.Data;
 
-import java.math.BigDecimal;
 
 @Data
 public class AccountResponse {
@@ -14,6 +14,6 @@ public class AccountResponse {
     public static class AccountInfo {
         private String accountName;
         private String accountNumber;
-        private BigDecimal accountBalance;
+        private Money accountBalance;
     }
 }
\ No newline at end of file
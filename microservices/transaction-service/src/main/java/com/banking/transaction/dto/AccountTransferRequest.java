@@ -0,0 +1,18 @@
+package com.banking.transaction.dto;
+
+import com.banking.common.money.Money;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class AccountTransferRequest {
+    private String sourceAccountNumber;
+    private String destinationAccountNumber;
+    private Money amount;
+}
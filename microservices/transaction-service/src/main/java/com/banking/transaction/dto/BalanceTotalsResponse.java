@@ -0,0 +1,22 @@
+package com.banking.transaction.dto;
+
+import com.banking.common.money.Money;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+public class BalanceTotalsResponse {
+    private String responseCode;
+    private String responseMessage;
+    private List<Totals> accounts;
+
+    @Data
+    public static class Totals {
+        private String accountNumber;
+        private Money accountBalance;
+        private Money netDeposits;
+        private LocalDateTime openingBalanceAt;
+    }
+}
@@ -0,0 +1,23 @@
+package com.banking.transaction.dto;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@Builder
+public class BatchTransferResponse {
+    private String responseCode;
+    private String responseMessage;
+    private List<Result> results;
+
+    @Data
+    @Builder
+    public static class Result {
+        private int index;
+        private String responseCode;
+        private String responseMessage;
+        private TransactionResponse.TransactionInfo transactionInfo;
+    }
+}
@@ -0,0 +1,33 @@
+package com.banking.transaction.dto;
+
+import com.banking.common.money.Money;
+import lombok.Builder;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+@Builder
+public class ReconciliationReport {
+    private String jobId;
+    private String responseCode;
+    private String responseMessage;
+    private LocalDateTime startedAt;
+    private long durationMs;
+    private int partitions;
+    private long accountsChecked;
+    private long transactionsScanned;
+    private long mismatchCount;
+    private List<Mismatch> mismatches;
+
+    @Data
+    @Builder
+    public static class Mismatch {
+        private String accountNumber;
+        // Balance and net deposits are null when account-service has no such account.
+        private Money accountBalance;
+        private Money netDeposits;
+        private Money netTransactionFlow;
+    }
+}
@@ -0,0 +1,15 @@
+package com.banking.transaction.dto;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@Builder
+public class TransactionHistoryResponse {
+    private String responseCode;
+    private String responseMessage;
+    private List<TransactionResponse.TransactionInfo> transactions;
+    private String nextCursor;
+}
@@ -1,14 +1,18 @@
 package com.banking.transaction.dto;
 
+import com.banking.common.money.Money;
 import com.banking.transaction.entity.Transaction;
+import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
+import lombok.NoArgsConstructor;
 
-import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
 @Data
 @Builder
+@NoArgsConstructor
+@AllArgsConstructor
 public class TransactionResponse {
     private String responseCode;
     private String responseMessage;
@@ -16,11 +20,13 @@ public class TransactionResponse {
 
     @Data
     @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
     public static class TransactionInfo {
         private String transactionReference;
         private String sourceAccountNumber;
         private String destinationAccountNumber;
-        private BigDecimal amount;
+        private Money amount;
         private Transaction.TransactionType transactionType;
         private Transaction.TransactionStatus status;
         private String description;
@@ -0,0 +1,21 @@
+package com.banking.transaction.dto;
+
+import com.banking.common.money.Money;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TransferCompletedEvent {
+    public static final String TYPE = "TransferCompleted";
+    public static final String AGGREGATE_TYPE = "ACCOUNT";
+
+    private String transactionReference;
+    private String sourceAccountNumber;
+    private String destinationAccountNumber;
+    private Money amount;
+    private String description;
+}
@@ -1,11 +1,11 @@
 package com.banking.transaction.dto;
 
-import jakarta.validation.constraints.DecimalMin;
+import com.banking.common.money.MinAmount;
+import com.banking.common.money.Money;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import lombok.Data;
 
-import java.math.BigDecimal;
 
 @Data
 public class TransferRequest {
@@ -16,8 +16,8 @@ public class TransferRequest {
     private String destinationAccountNumber;
 
     @NotNull(message = "Amount is required")
-    @DecimalMin(value = "0.01", message = "Amount must be greater than 0")
-    private BigDecimal amount;
+    @MinAmount(value = "0.01", message = "Amount must be greater than 0")
+    private Money amount;
 
     private String description;
 }
\ No newline at end of file
@@ -1,17 +1,21 @@
 package com.banking.transaction.entity;
 
+import com.banking.common.money.MinAmount;
+import com.banking.common.money.Money;
+import com.banking.common.money.MoneyConverter;
 import jakarta.persistence.*;
-import jakarta.validation.constraints.DecimalMin;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import lombok.*;
 import org.hibernate.annotations.CreationTimestamp;
 
-import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "transactions")
+@Table(name = "transactions", indexes = {
+        @Index(name = "idx_transactions_source_created", columnList = "source_account_number, created_at, transaction_reference"),
+        @Index(name = "idx_transactions_destination_created", columnList = "destination_account_number, created_at, transaction_reference")
+})
 @Data
 @Builder
 @NoArgsConstructor
@@ -32,10 +36,11 @@ public class Transaction {
     private String destinationAccountNumber;
 
     @NotNull(message = "Amount is required")
-    @DecimalMin(value = "0.01", message = "Amount must be greater than 0")
-    private BigDecimal amount;
+    @Convert(converter = MoneyConverter.class)
+    @MinAmount(value = "0.01", message = "Amount must be greater than 0")
+    private Money amount;
 
-    @NotBlank(message = "Transaction type is required")
+    @NotNull(message = "Transaction type is required")
     @Enumerated(EnumType.STRING)
     private TransactionType transactionType;
 
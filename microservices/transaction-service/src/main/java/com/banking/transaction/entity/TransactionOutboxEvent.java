@@ -0,0 +1,14 @@
+package com.banking.transaction.entity;
+
+import com.banking.common.outbox.OutboxEvent;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+
+@Entity
+@Table(name = TransactionOutboxEvent.TABLE, indexes = {
+        @Index(name = "idx_transaction_outbox_events_published", columnList = "published_at, id")
+})
+public class TransactionOutboxEvent extends OutboxEvent {
+    public static final String TABLE = "transaction_outbox_events";
+}
@@ -0,0 +1,9 @@
+package com.banking.transaction.repository;
+
+import com.banking.transaction.entity.TransactionOutboxEvent;
+import com.banking.common.outbox.OutboxEventRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface TransactionOutboxEventRepository extends OutboxEventRepository<TransactionOutboxEvent> {
+}
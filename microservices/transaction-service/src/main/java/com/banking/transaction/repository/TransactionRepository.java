@@ -1,13 +1,41 @@
 package com.banking.transaction.repository;
 
 import com.banking.transaction.entity.Transaction;
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.List;
+
 @Repository
 public interface TransactionRepository extends JpaRepository<Transaction, Long> {
-    Page<Transaction> findBySourceAccountNumberOrDestinationAccountNumberOrderByCreatedAtDesc(
+    List<Transaction> findBySourceAccountNumberOrDestinationAccountNumberOrderByCreatedAtDesc(
             String sourceAccountNumber, String destinationAccountNumber, Pageable pageable);
-}
\ No newline at end of file
+
+    @Query("select t from Transaction t where t.sourceAccountNumber = :accountNumber " +
+            "order by t.createdAt desc, t.transactionReference desc")
+    List<Transaction> findLatestBySource(@Param("accountNumber") String accountNumber, Pageable pageable);
+
+    @Query("select t from Transaction t where t.destinationAccountNumber = :accountNumber " +
+            "order by t.createdAt desc, t.transactionReference desc")
+    List<Transaction> findLatestByDestination(@Param("accountNumber") String accountNumber, Pageable pageable);
+
+    @Query("select t from Transaction t where t.sourceAccountNumber = :accountNumber " +
+            "and (t.createdAt < :createdAt or (t.createdAt = :createdAt and t.transactionReference < :reference)) " +
+            "order by t.createdAt desc, t.transactionReference desc")
+    List<Transaction> findBySourceBefore(@Param("accountNumber") String accountNumber,
+                                         @Param("createdAt") LocalDateTime createdAt,
+                                         @Param("reference") String reference,
+                                         Pageable pageable);
+
+    @Query("select t from Transaction t where t.destinationAccountNumber = :accountNumber " +
+            "and (t.createdAt < :createdAt or (t.createdAt = :createdAt and t.transactionReference < :reference)) " +
+            "order by t.createdAt desc, t.transactionReference desc")
+    List<Transaction> findByDestinationBefore(@Param("accountNumber") String accountNumber,
+                                              @Param("createdAt") LocalDateTime createdAt,
+                                              @Param("reference") String reference,
+                                              Pageable pageable);
+}
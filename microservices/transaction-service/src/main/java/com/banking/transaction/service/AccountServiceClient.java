@@ -1,20 +1,24 @@
 package com.banking.transaction.service;
 
+import com.banking.transaction.dto.AccountBatchTransferRequest;
+import com.banking.transaction.dto.AccountBatchTransferResponse;
 import com.banking.transaction.dto.AccountResponse;
+import com.banking.transaction.dto.AccountTransferRequest;
+import com.banking.transaction.dto.BalanceTotalsResponse;
 import org.springframework.cloud.openfeign.FeignClient;
 import org.springframework.web.bind.annotation.*;
 
-import java.math.BigDecimal;
-
 @FeignClient(name = "account-service")
 public interface AccountServiceClient {
-    @GetMapping("/api/accounts/{accountNumber}")
-    AccountResponse getAccount(@PathVariable String accountNumber);
+    @GetMapping("/internal/accounts/totals")
+    BalanceTotalsResponse getBalanceTotals(@RequestParam(value = "after", required = false) String after,
+                                           @RequestParam("limit") int limit);
     
-    @PutMapping("/api/accounts/{accountNumber}/balance")
-    AccountResponse updateBalance(
-        @PathVariable String accountNumber,
-        @RequestParam BigDecimal amount,
-        @RequestParam String operation
-    );
+    @PostMapping("/api/accounts/transfer")
+    AccountResponse transfer(@RequestBody AccountTransferRequest request,
+                             @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey);
+
+    @PostMapping("/api/accounts/transfer/batch")
+    AccountBatchTransferResponse transferBatch(@RequestBody AccountBatchTransferRequest request,
+                                               @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey);
 }
\ No newline at end of file
@@ -0,0 +1,324 @@
+package com.banking.transaction.service;
+
+import com.banking.common.audit.AuditPublisher;
+import com.banking.common.outbox.OutboxEvent;
+import com.banking.common.outbox.OutboxWriter;
+import com.banking.common.sharding.ShardRouter;
+import com.banking.transaction.dto.AccountBatchTransferRequest;
+import com.banking.transaction.dto.AccountBatchTransferResponse;
+import com.banking.transaction.dto.AccountTransferRequest;
+import com.banking.transaction.dto.BatchTransferResponse;
+import com.banking.transaction.dto.TransferRequest;
+import com.banking.transaction.entity.Transaction;
+import feign.FeignException;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.IntStream;
+
+@Service
+@Slf4j
+public class BatchTransferService {
+    private static final String INSERT_TRANSACTION = "INSERT INTO transactions (transaction_reference, " +
+            "source_account_number, destination_account_number, amount, transaction_type, status, " +
+            "description, created_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+    // Account-service may or may not have applied the transfer.
+    private static final String OUTCOME_UNKNOWN = "202";
+
+    private final ResilientAccountClient accountClient;
+    private final TransactionService transactionService;
+    private final JdbcTemplate jdbcTemplate;
+    private final AuditPublisher auditPublisher;
+    private final OutboxWriter outboxWriter;
+    private final ShardRouter shardRouter;
+    private final TransactionTemplate transactionTemplate;
+    private final int chunkSize;
+    private final int maxBatchSize;
+    private final ExecutorService recordExecutor = Executors.newVirtualThreadPerTaskExecutor();
+
+    public BatchTransferService(ResilientAccountClient accountClient,
+                                TransactionService transactionService,
+                                JdbcTemplate jdbcTemplate,
+                                AuditPublisher auditPublisher,
+                                OutboxWriter outboxWriter,
+                                ShardRouter shardRouter,
+                                TransactionTemplate transactionTemplate,
+                                @Value("${banking.transfer.batch.chunk-size:500}") int chunkSize,
+                                @Value("${banking.transfer.batch.max-size:5000}") int maxBatchSize) {
+        this.accountClient = accountClient;
+        this.transactionService = transactionService;
+        this.jdbcTemplate = jdbcTemplate;
+        this.auditPublisher = auditPublisher;
+        this.outboxWriter = outboxWriter;
+        this.shardRouter = shardRouter;
+        this.transactionTemplate = transactionTemplate;
+        this.chunkSize = Math.max(1, chunkSize);
+        this.maxBatchSize = maxBatchSize;
+    }
+
+    /**
+     * Settles and records {@code transfers} chunk by chunk. With an {@code idempotencyKey}, each
+     * chunk is sent to account-service under a key derived from it and recorded under references
+     * derived from it, so retrying the batch with the same key settles and records nothing twice.
+     */
+    public BatchTransferResponse processBatch(List<TransferRequest> transfers, String idempotencyKey) {
+        if (transfers.size() > maxBatchSize) {
+            return BatchTransferResponse.builder()
+                    .responseCode("400")
+                    .responseMessage("Batch exceeds the maximum of " + maxBatchSize + " transfers")
+                    .build();
+        }
+
+        String batchKey = idempotencyKey == null || idempotencyKey.isBlank() ? null : idempotencyKey;
+        BatchTransferResponse.Result[] results = new BatchTransferResponse.Result[transfers.size()];
+        List<CompletableFuture<Void>> recordings = new ArrayList<>();
+
+        // Settle chunk N+1 against account-service while chunk N is being recorded locally.
+        for (int start = 0; start < transfers.size(); start += chunkSize) {
+            int end = Math.min(start + chunkSize, transfers.size());
+            // Without a batch key the chunk key still lets account-service drop a duplicated delivery.
+            String chunkKey = batchKey != null ? batchKey + ":" + start : UUID.randomUUID().toString();
+            List<Transaction> settled = settleChunk(transfers, start, end, chunkKey, batchKey, results);
+            if (!settled.isEmpty()) {
+                int[] indexes = settledIndexes(results, start, end);
+                boolean keyed = batchKey != null;
+                recordings.add(CompletableFuture.runAsync(() -> recordChunk(settled, indexes, keyed, results), recordExecutor));
+            }
+        }
+        recordings.forEach(CompletableFuture::join);
+
+        long completed = 0;
+        long pending = 0;
+        for (BatchTransferResponse.Result result : results) {
+            if ("200".equals(result.getResponseCode())) {
+                completed++;
+            } else if (OUTCOME_UNKNOWN.equals(result.getResponseCode())) {
+                pending++;
+            }
+        }
+        long failed = results.length - completed - pending;
+        String summary = completed + " completed, " + pending + " pending, " + failed + " failed";
+        log.info("Transfer batch processed: {}", summary);
+        auditPublisher.publish("TRANSFER_BATCH_COMPLETED", "TRANSACTION", null, summary);
+        return BatchTransferResponse.builder()
+                .responseCode("200")
+                .responseMessage("Batch processed: " + summary)
+                .results(List.of(results))
+                .build();
+    }
+
+    private List<Transaction> settleChunk(List<TransferRequest> transfers, int start, int end, String chunkKey,
+                                          String batchKey, BatchTransferResponse.Result[] results) {
+        List<AccountTransferRequest> chunk = new ArrayList<>(end - start);
+        for (int i = start; i < end; i++) {
+            TransferRequest transfer = transfers.get(i);
+            chunk.add(AccountTransferRequest.builder()
+                    .sourceAccountNumber(transfer.getSourceAccountNumber())
+                    .destinationAccountNumber(transfer.getDestinationAccountNumber())
+                    .amount(transfer.getAmount())
+                    .build());
+        }
+
+        AccountBatchTransferResponse settlement;
+        try {
+            settlement = accountClient.transferBatch(new AccountBatchTransferRequest(chunk), chunkKey);
+        } catch (CallNotPermittedException | BulkheadFullException e) {
+            // Rejected before it was sent, so nothing moved.
+            log.warn("Settlement of transfers {}-{} rejected: {}", start, end - 1, e.getMessage());
+            for (int i = start; i < end; i++) {
+                results[i] = failure(i, "503", "Account service is temporarily unavailable");
+            }
+            return List.of();
+        } catch (FeignException e) {
+            if (e.status() >= 400 && e.status() < 500 && e.status() != 409) {
+                log.warn("Settlement of transfers {}-{} refused with {}", start, end - 1, e.status());
+                for (int i = start; i < end; i++) {
+                    results[i] = failure(i, String.valueOf(e.status()), "Transfer was rejected by account service");
+                }
+            } else {
+                // A timeout, a 5xx or a 409 for a key still in flight: account-service may have committed.
+                log.error("Settlement of transfers {}-{} has an unknown outcome: {}", start, end - 1, e.getMessage());
+                for (int i = start; i < end; i++) {
+                    results[i] = outcomeUnknown(i, batchKey);
+                }
+            }
+            return List.of();
+        } catch (Exception e) {
+            log.error("Settlement of transfers {}-{} has an unknown outcome: {}", start, end - 1, e.getMessage());
+            for (int i = start; i < end; i++) {
+                results[i] = outcomeUnknown(i, batchKey);
+            }
+            return List.of();
+        }
+
+        List<Transaction> settled = new ArrayList<>();
+        LocalDateTime now = LocalDateTime.now();
+        List<AccountBatchTransferResponse.Result> items = settlement.getResults() != null ? settlement.getResults() : List.of();
+        for (AccountBatchTransferResponse.Result item : items) {
+            if (item.getIndex() < 0 || item.getIndex() >= end - start) {
+                continue;
+            }
+            int index = start + item.getIndex();
+            if (!"200".equals(item.getResponseCode())) {
+                results[index] = failure(index, item.getResponseCode(), item.getResponseMessage());
+                continue;
+            }
+            TransferRequest transfer = transfers.get(index);
+            Transaction transaction = Transaction.builder()
+                    .transactionReference(transactionReference(batchKey, index, transfer))
+                    .sourceAccountNumber(transfer.getSourceAccountNumber())
+                    .destinationAccountNumber(transfer.getDestinationAccountNumber())
+                    .amount(transfer.getAmount())
+                    .transactionType(Transaction.TransactionType.TRANSFER)
+                    .status(Transaction.TransactionStatus.COMPLETED)
+                    .description(transfer.getDescription())
+                    .createdAt(now)
+                    .build();
+            settled.add(transaction);
+            results[index] = BatchTransferResponse.Result.builder()
+                    .index(index)
+                    .responseCode("200")
+                    .responseMessage("Transfer completed successfully")
+                    .transactionInfo(transactionService.buildTransactionInfo(transaction))
+                    .build();
+        }
+        // Account-service answers for every transfer it was sent; a missing answer says nothing about the outcome.
+        for (int i = start; i < end; i++) {
+            if (results[i] == null) {
+                results[i] = outcomeUnknown(i, batchKey);
+            }
+        }
+        return settled;
+    }
+
+    private String transactionReference(String batchKey, int index, TransferRequest transfer) {
+        if (batchKey == null) {
+            return transactionService.generateTransactionReference();
+        }
+        String seed = batchKey + ":" + index + ":" + transfer.getSourceAccountNumber() + ":"
+                + transfer.getDestinationAccountNumber() + ":" + transfer.getAmount();
+        long digits = UUID.nameUUIDFromBytes(seed.getBytes(StandardCharsets.UTF_8)).getMostSignificantBits()
+                & Long.MAX_VALUE;
+        return String.format("TXN%019d", digits);
+    }
+
+    // Each transaction is stored on its source account's shard, in one local transaction per shard.
+    private void recordChunk(List<Transaction> transactions, int[] indexes, boolean keyed,
+                             BatchTransferResponse.Result[] results) {
+        List<Integer> positions = IntStream.range(0, transactions.size()).boxed().toList();
+        shardRouter.groupByShard(positions, position -> transactions.get(position).getSourceAccountNumber())
+                .forEach((shard, group) -> shardRouter.onShard(shard, () -> {
+                    recordGroup(group.stream().map(transactions::get).toList(),
+                            group.stream().mapToInt(position -> indexes[position]).toArray(), keyed, results);
+                    return null;
+                }));
+    }
+
+    private void recordGroup(List<Transaction> transactions, int[] indexes, boolean keyed,
+                             BatchTransferResponse.Result[] results) {
+        try {
+            insertGroup(transactions, keyed);
+        } catch (DuplicateKeyException e) {
+            if (!keyed) {
+                recordingFailed(transactions, indexes, results, e);
+                return;
+            }
+            // A concurrent retry of the same keyed batch recorded some of them first; skip those this time.
+            try {
+                insertGroup(transactions, true);
+            } catch (Exception retryError) {
+                recordingFailed(transactions, indexes, results, retryError);
+            }
+        } catch (Exception e) {
+            recordingFailed(transactions, indexes, results, e);
+        }
+    }
+
+    private void recordingFailed(List<Transaction> transactions, int[] indexes, BatchTransferResponse.Result[] results,
+                                 Exception e) {
+        // Funds have already moved; surface the recording failure per item for reconciliation.
+        log.error("Failed to record {} settled transfers: {}", transactions.size(), e.getMessage());
+        for (int index : indexes) {
+            results[index] = failure(index, "500", "Transfer settled but could not be recorded");
+        }
+    }
+
+    // Keyed transfers already recorded by an earlier attempt of the same batch are skipped.
+    private void insertGroup(List<Transaction> candidates, boolean keyed) {
+        transactionTemplate.executeWithoutResult(status -> {
+            List<Transaction> transactions = keyed ? unrecorded(candidates) : candidates;
+            if (transactions.isEmpty()) {
+                return;
+            }
+            List<OutboxEvent> events = new ArrayList<>(transactions.size());
+            for (Transaction transaction : transactions) {
+                events.add(transactionService.transferCompleted(transaction));
+            }
+            jdbcTemplate.batchUpdate(INSERT_TRANSACTION, transactions, transactions.size(), (ps, transaction) -> {
+                ps.setString(1, transaction.getTransactionReference());
+                ps.setString(2, transaction.getSourceAccountNumber());
+                ps.setString(3, transaction.getDestinationAccountNumber());
+                ps.setBigDecimal(4, transaction.getAmount().toBigDecimal());
+                ps.setString(5, transaction.getTransactionType().name());
+                ps.setString(6, transaction.getStatus().name());
+                ps.setString(7, transaction.getDescription());
+                ps.setTimestamp(8, Timestamp.valueOf(transaction.getCreatedAt()));
+            });
+            outboxWriter.appendAll(events);
+        });
+    }
+
+    private List<Transaction> unrecorded(List<Transaction> transactions) {
+        String placeholders = String.join(",", Collections.nCopies(transactions.size(), "?"));
+        Set<String> recorded = new HashSet<>(jdbcTemplate.queryForList(
+                "SELECT transaction_reference FROM transactions WHERE transaction_reference IN (" + placeholders + ")",
+                String.class, transactions.stream().map(Transaction::getTransactionReference).toArray()));
+        return transactions.stream()
+                .filter(transaction -> !recorded.contains(transaction.getTransactionReference()))
+                .toList();
+    }
+
+    private int[] settledIndexes(BatchTransferResponse.Result[] results, int start, int end) {
+        return IntStream.range(start, end)
+                .filter(i -> results[i] != null && "200".equals(results[i].getResponseCode()))
+                .toArray();
+    }
+
+    private BatchTransferResponse.Result outcomeUnknown(int index, String batchKey) {
+        return failure(index, OUTCOME_UNKNOWN, batchKey != null
+                ? "Transfer outcome unknown; retry the batch with the same Idempotency-Key to settle it"
+                : "Transfer outcome unknown; check the account before retrying");
+    }
+
+    private BatchTransferResponse.Result failure(int index, String code, String message) {
+        return BatchTransferResponse.Result.builder()
+                .index(index)
+                .responseCode(code)
+                .responseMessage(message)
+                .build();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        recordExecutor.shutdown();
+    }
+}
@@ -0,0 +1,32 @@
+package com.banking.transaction.service;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+// Ids are only unique within a shard, so the position is kept by the globally unique reference.
+record HistoryCursor(LocalDateTime createdAt, String reference) {
+
+    String encode() {
+        String raw = createdAt + "|" + reference;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    static HistoryCursor decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separator = raw.indexOf('|');
+            if (separator < 0) {
+                throw new IllegalArgumentException("Malformed cursor");
+            }
+            String reference = raw.substring(separator + 1);
+            if (reference.isEmpty()) {
+                throw new IllegalArgumentException("Malformed cursor");
+            }
+            return new HistoryCursor(LocalDateTime.parse(raw.substring(0, separator)), reference);
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Malformed cursor", e);
+        }
+    }
+}
@@ -0,0 +1,345 @@
+package com.banking.transaction.service;
+
+import com.banking.common.money.Money;
+import com.banking.common.sharding.ShardRouter;
+import com.banking.transaction.dto.BalanceTotalsResponse;
+import com.banking.transaction.dto.ReconciliationReport;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import javax.sql.DataSource;
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Checks that every account's balance in account-service equals its net deposits plus the net flow
+ * of its completed transactions. Account-service is paged through in account-number order and every
+ * {@code banking.reconciliation.accounts-per-partition} accounts become a partition, reconciled on a
+ * fork/join pool. Each partition streams bare (account number, amount) rows for its range of account
+ * numbers, sums them per account in minor units and compares the sums with the listed balances, so
+ * heap use is bounded by the partition size and parallelism rather than the number of accounts or
+ * transactions. Transactions of accounts that account-service does not list are reported too.
+ * Accounts that predate net deposit tracking had their balance taken as opening net deposits, so
+ * only their transactions after that are counted.
+ * Transfers that commit while a range is being checked can show up as mismatches, which is why the
+ * nightly run is scheduled for a quiet period. On-demand runs are started with {@link #start()} and
+ * polled by job id.
+ */
+@Service
+@Slf4j
+public class ReconciliationService {
+    private static final int RETAINED_JOBS = 20;
+
+    private final JdbcTemplate streamingJdbcTemplate;
+    private final ResilientAccountClient accountClient;
+    private final ShardRouter shardRouter;
+    private final boolean enabled;
+    private final int accountsPerPartition;
+    private final int parallelism;
+    private final int lookupBatchSize;
+    private final int maxReportedMismatches;
+    private final AtomicBoolean running = new AtomicBoolean();
+    private final AtomicLong lastMismatchCount = new AtomicLong();
+    private final Timer duration;
+    private final ExecutorService jobExecutor = Executors.newSingleThreadExecutor();
+    private final Map<String, ReconciliationReport> jobs = new LinkedHashMap<>() {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, ReconciliationReport> eldest) {
+            return size() > RETAINED_JOBS;
+        }
+    };
+
+    public ReconciliationService(DataSource dataSource,
+                                 ResilientAccountClient accountClient,
+                                 ShardRouter shardRouter,
+                                 MeterRegistry meterRegistry,
+                                 @Value("${banking.reconciliation.enabled:true}") boolean enabled,
+                                 @Value("${banking.reconciliation.fetch-size:1000}") int fetchSize,
+                                 @Value("${banking.reconciliation.accounts-per-partition:2000}") int accountsPerPartition,
+                                 @Value("${banking.reconciliation.parallelism:4}") int parallelism,
+                                 @Value("${banking.reconciliation.lookup-batch-size:500}") int lookupBatchSize,
+                                 @Value("${banking.reconciliation.max-reported-mismatches:1000}") int maxReportedMismatches) {
+        // Requires useCursorFetch=true on the MySQL URL so the driver streams instead of buffering the result.
+        this.streamingJdbcTemplate = new JdbcTemplate(dataSource);
+        this.streamingJdbcTemplate.setFetchSize(fetchSize);
+        this.accountClient = accountClient;
+        this.shardRouter = shardRouter;
+        this.enabled = enabled;
+        this.accountsPerPartition = Math.max(1, accountsPerPartition);
+        this.parallelism = Math.max(1, parallelism);
+        this.lookupBatchSize = Math.max(1, lookupBatchSize);
+        this.maxReportedMismatches = Math.max(0, maxReportedMismatches);
+        this.duration = meterRegistry.timer("reconciliation.duration");
+        meterRegistry.gauge("reconciliation.mismatches", lastMismatchCount);
+    }
+
+    @Scheduled(cron = "${banking.reconciliation.cron:0 30 1 * * *}")
+    public void reconcileNightly() {
+        if (enabled && running.compareAndSet(false, true)) {
+            String jobId = UUID.randomUUID().toString();
+            record(running(jobId));
+            run(jobId);
+        }
+    }
+
+    /**
+     * Starts a reconciliation in the background and returns its job id, or a 409 naming the
+     * job that is already running.
+     */
+    public ReconciliationReport start() {
+        if (!running.compareAndSet(false, true)) {
+            return ReconciliationReport.builder()
+                    .jobId(runningJobId())
+                    .responseCode("409")
+                    .responseMessage("Reconciliation is already running")
+                    .build();
+        }
+        String jobId = UUID.randomUUID().toString();
+        ReconciliationReport accepted = running(jobId);
+        record(accepted);
+        try {
+            jobExecutor.execute(() -> run(jobId));
+        } catch (RuntimeException e) {
+            running.set(false);
+            throw e;
+        }
+        return accepted;
+    }
+
+    public Optional<ReconciliationReport> job(String jobId) {
+        synchronized (jobs) {
+            return Optional.ofNullable(jobs.get(jobId));
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        jobExecutor.shutdownNow();
+    }
+
+    private void run(String jobId) {
+        try {
+            record(reconcile(jobId));
+        } finally {
+            running.set(false);
+        }
+    }
+
+    private ReconciliationReport reconcile(String jobId) {
+        LocalDateTime startedAt = LocalDateTime.now();
+        long started = System.nanoTime();
+        try {
+            Tally tally = new Tally(0, 0, 0, List.of());
+            int partitions = 0;
+            try (ForkJoinPool pool = new ForkJoinPool(parallelism)) {
+                Deque<ForkJoinTask<Tally>> inFlight = new ArrayDeque<>();
+                List<BalanceTotalsResponse.Totals> partition = new ArrayList<>();
+                String from = null;
+                String after = null;
+                List<BalanceTotalsResponse.Totals> page;
+                do {
+                    page = totalsAfter(after);
+                    if (!page.isEmpty() && partition.size() >= accountsPerPartition) {
+                        // The next page's first account closes the range, so no account number falls between ranges.
+                        String to = page.get(0).getAccountNumber();
+                        tally = submit(pool, inFlight, new Range(from, to), partition, tally);
+                        partitions++;
+                        from = to;
+                        partition = new ArrayList<>();
+                    }
+                    partition.addAll(page);
+                    after = page.isEmpty() ? after : page.get(page.size() - 1).getAccountNumber();
+                } while (page.size() == lookupBatchSize);
+                tally = submit(pool, inFlight, new Range(from, null), partition, tally);
+                partitions++;
+                while (!inFlight.isEmpty()) {
+                    tally = merge(tally, inFlight.poll().join());
+                }
+            }
+            long elapsed = System.nanoTime() - started;
+            duration.record(elapsed, TimeUnit.NANOSECONDS);
+            lastMismatchCount.set(tally.mismatchCount());
+            log.info("Reconciled {} accounts over {} transactions in {} partitions: {} mismatches",
+                    tally.accounts(), tally.transactions(), partitions, tally.mismatchCount());
+            return ReconciliationReport.builder()
+                    .jobId(jobId)
+                    .responseCode("200")
+                    .responseMessage(tally.mismatchCount() == 0 ? "All balances reconcile"
+                            : tally.mismatchCount() + " balances do not reconcile")
+                    .startedAt(startedAt)
+                    .durationMs(TimeUnit.NANOSECONDS.toMillis(elapsed))
+                    .partitions(partitions)
+                    .accountsChecked(tally.accounts())
+                    .transactionsScanned(tally.transactions())
+                    .mismatchCount(tally.mismatchCount())
+                    .mismatches(tally.mismatches())
+                    .build();
+        } catch (Exception e) {
+            log.error("Reconciliation failed: {}", e.getMessage());
+            return ReconciliationReport.builder()
+                    .jobId(jobId)
+                    .responseCode("500")
+                    .responseMessage("Reconciliation failed")
+                    .startedAt(startedAt)
+                    .build();
+        }
+    }
+
+    // At most parallelism partitions are in flight, so only that many are held in memory at once.
+    private Tally submit(ForkJoinPool pool, Deque<ForkJoinTask<Tally>> inFlight, Range range,
+                         List<BalanceTotalsResponse.Totals> accounts, Tally tally) {
+        while (inFlight.size() >= parallelism) {
+            tally = merge(tally, inFlight.poll().join());
+        }
+        inFlight.add(pool.submit(ForkJoinTask.adapt(() -> reconcile(range, accounts))));
+        return tally;
+    }
+
+    private List<BalanceTotalsResponse.Totals> totalsAfter(String after) {
+        BalanceTotalsResponse response = accountClient.getBalanceTotals(after, lookupBatchSize);
+        if (!"200".equals(response.getResponseCode())) {
+            throw new IllegalStateException("Balance listing failed: " + response.getResponseMessage());
+        }
+        return response.getAccounts() == null ? List.of() : response.getAccounts();
+    }
+
+    private Tally reconcile(Range range, List<BalanceTotalsResponse.Totals> accounts) {
+        Map<String, long[]> flows = new HashMap<>();
+        Map<String, LocalDateTime> openings = new HashMap<>();
+        for (BalanceTotalsResponse.Totals account : accounts) {
+            if (account.getOpeningBalanceAt() != null) {
+                openings.put(account.getAccountNumber(), account.getOpeningBalanceAt());
+            }
+        }
+        // Every transaction's source falls in exactly one range, so counting that side counts each once.
+        long transactions = sumFlows(range, "source_account_number", -1, openings, flows);
+        sumFlows(range, "destination_account_number", 1, openings, flows);
+
+        List<ReconciliationReport.Mismatch> mismatches = new ArrayList<>();
+        long mismatchCount = 0;
+        for (BalanceTotalsResponse.Totals account : accounts) {
+            long[] flow = flows.remove(account.getAccountNumber());
+            long net = flow == null ? 0 : flow[0];
+            if (account.getAccountBalance().minorUnits() == account.getNetDeposits().minorUnits() + net) {
+                continue;
+            }
+            mismatchCount++;
+            if (mismatches.size() < maxReportedMismatches) {
+                mismatches.add(mismatch(account.getAccountNumber(), account.getAccountBalance(),
+                        account.getNetDeposits(), net));
+            }
+        }
+        // What is left has transactions but is unknown to account-service.
+        for (Map.Entry<String, long[]> unknown : flows.entrySet()) {
+            mismatchCount++;
+            if (mismatches.size() < maxReportedMismatches) {
+                mismatches.add(mismatch(unknown.getKey(), null, null, unknown.getValue()[0]));
+            }
+        }
+        return new Tally(accounts.size(), transactions, mismatchCount, mismatches);
+    }
+
+    private static ReconciliationReport.Mismatch mismatch(String accountNumber, Money balance, Money netDeposits,
+                                                          long netFlow) {
+        return ReconciliationReport.Mismatch.builder()
+                .accountNumber(accountNumber)
+                .accountBalance(balance)
+                .netDeposits(netDeposits)
+                .netTransactionFlow(Money.ofMinor(netFlow))
+                .build();
+    }
+
+    private long sumFlows(Range range, String column, int sign, Map<String, LocalDateTime> openings,
+                          Map<String, long[]> flows) {
+        StringBuilder sql = new StringBuilder("SELECT ").append(column)
+                .append(", amount, created_at FROM transactions WHERE status = 'COMPLETED'");
+        List<Object> args = new ArrayList<>(2);
+        if (range.from() != null) {
+            sql.append(" AND ").append(column).append(" >= ?");
+            args.add(range.from());
+        }
+        if (range.to() != null) {
+            sql.append(" AND ").append(column).append(" < ?");
+            args.add(range.to());
+        }
+        long[] rows = {0};
+        // Transactions live on their source account's shard, so incoming flows can come from any shard.
+        shardRouter.forEachShard(shard -> streamingJdbcTemplate.query(sql.toString(), (RowCallbackHandler) rs -> {
+            rows[0]++;
+            String accountNumber = rs.getString(1);
+            LocalDateTime opening = openings.get(accountNumber);
+            // Already counted in the opening net deposits.
+            if (opening != null && !rs.getTimestamp(3).toLocalDateTime().isAfter(opening)) {
+                return;
+            }
+            flows.computeIfAbsent(accountNumber, key -> new long[1])[0] += sign * Money.of(rs.getBigDecimal(2)).minorUnits();
+        }, args.toArray()));
+        return rows[0];
+    }
+
+    private Tally merge(Tally left, Tally right) {
+        List<ReconciliationReport.Mismatch> mismatches = new ArrayList<>(left.mismatches());
+        for (ReconciliationReport.Mismatch mismatch : right.mismatches()) {
+            if (mismatches.size() >= maxReportedMismatches) {
+                break;
+            }
+            mismatches.add(mismatch);
+        }
+        return new Tally(left.accounts() + right.accounts(), left.transactions() + right.transactions(),
+                left.mismatchCount() + right.mismatchCount(), mismatches);
+    }
+
+    private static ReconciliationReport running(String jobId) {
+        return ReconciliationReport.builder()
+                .jobId(jobId)
+                .responseCode("202")
+                .responseMessage("Reconciliation is running")
+                .startedAt(LocalDateTime.now())
+                .build();
+    }
+
+    private void record(ReconciliationReport report) {
+        synchronized (jobs) {
+            jobs.put(report.getJobId(), report);
+        }
+    }
+
+    private String runningJobId() {
+        synchronized (jobs) {
+            return jobs.values().stream()
+                    .filter(report -> "202".equals(report.getResponseCode()))
+                    .map(ReconciliationReport::getJobId)
+                    .reduce((first, last) -> last)
+                    .orElse(null);
+        }
+    }
+
+    private record Range(String from, String to) {
+    }
+
+    private record Tally(long accounts, long transactions, long mismatchCount,
+                         List<ReconciliationReport.Mismatch> mismatches) {
+    }
+}
@@ -0,0 +1,58 @@
+package com.banking.transaction.service;
+
+import com.banking.transaction.dto.AccountBatchTransferRequest;
+import com.banking.transaction.dto.AccountBatchTransferResponse;
+import com.banking.transaction.dto.AccountResponse;
+import com.banking.transaction.dto.AccountTransferRequest;
+import com.banking.transaction.dto.BalanceTotalsResponse;
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import org.springframework.stereotype.Component;
+
+import java.util.function.Supplier;
+
+/**
+ * Wraps every {@link AccountServiceClient} method in its own circuit breaker and semaphore
+ * bulkhead, configured under {@code resilience4j.*}. Rejections surface as
+ * {@code CallNotPermittedException} or {@code BulkheadFullException}; Feign errors pass through unchanged.
+ */
+@Component
+public class ResilientAccountClient {
+    private final AccountServiceClient accountServiceClient;
+    private final Policy getBalanceTotals;
+    private final Policy transfer;
+    private final Policy transferBatch;
+
+    public ResilientAccountClient(AccountServiceClient accountServiceClient,
+                                  CircuitBreakerRegistry circuitBreakerRegistry,
+                                  BulkheadRegistry bulkheadRegistry) {
+        this.accountServiceClient = accountServiceClient;
+        this.getBalanceTotals = new Policy("getBalanceTotals", circuitBreakerRegistry, bulkheadRegistry);
+        this.transfer = new Policy("transfer", circuitBreakerRegistry, bulkheadRegistry);
+        this.transferBatch = new Policy("transferBatch", circuitBreakerRegistry, bulkheadRegistry);
+    }
+
+    public BalanceTotalsResponse getBalanceTotals(String after, int limit) {
+        return getBalanceTotals.decorate(() -> accountServiceClient.getBalanceTotals(after, limit)).get();
+    }
+
+    public AccountResponse transfer(AccountTransferRequest request, String idempotencyKey) {
+        return transfer.decorate(() -> accountServiceClient.transfer(request, idempotencyKey)).get();
+    }
+
+    public AccountBatchTransferResponse transferBatch(AccountBatchTransferRequest request, String idempotencyKey) {
+        return transferBatch.decorate(() -> accountServiceClient.transferBatch(request, idempotencyKey)).get();
+    }
+
+    private record Policy(CircuitBreaker circuitBreaker, Bulkhead bulkhead) {
+        Policy(String name, CircuitBreakerRegistry circuitBreakers, BulkheadRegistry bulkheads) {
+            this(circuitBreakers.circuitBreaker(name), bulkheads.bulkhead(name));
+        }
+
+        <T> Supplier<T> decorate(Supplier<T> call) {
+            return CircuitBreaker.decorateSupplier(circuitBreaker, Bulkhead.decorateSupplier(bulkhead, call));
+        }
+    }
+}
@@ -0,0 +1,186 @@
+package com.banking.transaction.service;
+
+import com.banking.common.sharding.ShardRouter;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceUtils;
+import org.springframework.jdbc.support.SQLExceptionTranslator;
+import org.springframework.stereotype.Service;
+
+import javax.sql.DataSource;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+
+@Service
+@Slf4j
+public class TransactionExportService {
+    private static final String EXPORT_QUERY = "SELECT id, transaction_reference, source_account_number, " +
+            "destination_account_number, amount, transaction_type, status, description, created_at " +
+            "FROM transactions WHERE source_account_number = ? " +
+            "UNION SELECT id, transaction_reference, source_account_number, destination_account_number, amount, " +
+            "transaction_type, status, description, created_at " +
+            "FROM transactions WHERE destination_account_number = ? " +
+            "ORDER BY created_at, id";
+    private static final Comparator<Cursor> EXPORT_ORDER = Comparator
+            .comparing((Cursor cursor) -> cursor.createdAt, Comparator.nullsFirst(Comparator.naturalOrder()))
+            .thenComparingLong(cursor -> cursor.id);
+    private static final String CSV_HEADER = "transactionReference,sourceAccountNumber,destinationAccountNumber," +
+            "amount,transactionType,status,description,createdAt\n";
+
+    private final DataSource dataSource;
+    private final ObjectMapper objectMapper;
+    private final ShardRouter shardRouter;
+    private final int fetchSize;
+    private final SQLExceptionTranslator exceptionTranslator;
+
+    public TransactionExportService(DataSource dataSource, ObjectMapper objectMapper, ShardRouter shardRouter,
+                                    @Value("${banking.export.fetch-size:500}") int fetchSize) {
+        this.dataSource = dataSource;
+        this.objectMapper = objectMapper;
+        this.shardRouter = shardRouter;
+        this.fetchSize = fetchSize;
+        this.exceptionTranslator = new JdbcTemplate(dataSource).getExceptionTranslator();
+    }
+
+    public void exportNdjson(String accountNumber, OutputStream outputStream) throws IOException {
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(outputStream)) {
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            streamRows(accountNumber, rs -> {
+                generator.writeStartObject();
+                generator.writeStringField("transactionReference", rs.getString("transaction_reference"));
+                generator.writeStringField("sourceAccountNumber", rs.getString("source_account_number"));
+                generator.writeStringField("destinationAccountNumber", rs.getString("destination_account_number"));
+                generator.writeFieldName("amount");
+                generator.writeNumber(rs.getBigDecimal("amount"));
+                generator.writeStringField("transactionType", rs.getString("transaction_type"));
+                generator.writeStringField("status", rs.getString("status"));
+                generator.writeStringField("description", rs.getString("description"));
+                generator.writeStringField("createdAt", formatTimestamp(rs));
+                generator.writeEndObject();
+                generator.writeRaw('\n');
+            });
+        }
+    }
+
+    public void exportCsv(String accountNumber, OutputStream outputStream) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8));
+        writer.write(CSV_HEADER);
+        streamRows(accountNumber, rs -> {
+            writeCsvField(writer, rs.getString("transaction_reference"));
+            writer.write(',');
+            writeCsvField(writer, rs.getString("source_account_number"));
+            writer.write(',');
+            writeCsvField(writer, rs.getString("destination_account_number"));
+            writer.write(',');
+            writer.write(rs.getBigDecimal("amount").toPlainString());
+            writer.write(',');
+            writeCsvField(writer, rs.getString("transaction_type"));
+            writer.write(',');
+            writeCsvField(writer, rs.getString("status"));
+            writer.write(',');
+            writeCsvField(writer, rs.getString("description"));
+            writer.write(',');
+            writeCsvField(writer, formatTimestamp(rs));
+            writer.write('\n');
+        });
+        writer.flush();
+    }
+
+    /**
+     * Streams the account's rows from every shard at once, always writing the oldest pending row
+     * next, so the export stays in (created_at, id) order with one open cursor per shard.
+     */
+    private void streamRows(String accountNumber, RowWriter rowWriter) throws IOException {
+        List<Connection> connections = new ArrayList<>(shardRouter.shardCount());
+        try {
+            PriorityQueue<Cursor> cursors = new PriorityQueue<>(EXPORT_ORDER);
+            for (int shard = 0; shard < shardRouter.shardCount(); shard++) {
+                Connection connection = shardRouter.onShard(shard, () -> DataSourceUtils.getConnection(dataSource));
+                connections.add(connection);
+                // Requires useCursorFetch=true on the MySQL URL so the driver streams instead of buffering the result.
+                PreparedStatement statement = connection.prepareStatement(EXPORT_QUERY);
+                statement.setFetchSize(fetchSize);
+                statement.setString(1, accountNumber);
+                statement.setString(2, accountNumber);
+                Cursor cursor = new Cursor(statement.executeQuery());
+                if (cursor.next()) {
+                    cursors.add(cursor);
+                }
+            }
+            while (!cursors.isEmpty()) {
+                Cursor cursor = cursors.poll();
+                rowWriter.write(cursor.rs);
+                if (cursor.next()) {
+                    cursors.add(cursor);
+                }
+            }
+        } catch (IOException e) {
+            log.warn("Statement export for {} aborted: {}", accountNumber, e.getMessage());
+            throw e;
+        } catch (SQLException e) {
+            throw exceptionTranslator.translate("Statement export", EXPORT_QUERY, e);
+        } finally {
+            connections.forEach(connection -> DataSourceUtils.releaseConnection(connection, dataSource));
+        }
+    }
+
+    private static String formatTimestamp(ResultSet rs) throws SQLException {
+        var createdAt = rs.getTimestamp("created_at");
+        return createdAt == null ? null : DateTimeFormatter.ISO_LOCAL_DATE_TIME.format(createdAt.toLocalDateTime());
+    }
+
+    private static void writeCsvField(Writer writer, String value) throws IOException {
+        if (value == null) {
+            return;
+        }
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            writer.write(value);
+            return;
+        }
+        writer.write('"');
+        writer.write(value.replace("\"", "\"\""));
+        writer.write('"');
+    }
+
+    private static final class Cursor {
+        private final ResultSet rs;
+        private Timestamp createdAt;
+        private long id;
+
+        private Cursor(ResultSet rs) {
+            this.rs = rs;
+        }
+
+        private boolean next() throws SQLException {
+            if (!rs.next()) {
+                rs.getStatement().close();
+                return false;
+            }
+            createdAt = rs.getTimestamp("created_at");
+            id = rs.getLong("id");
+            return true;
+        }
+    }
+
+    @FunctionalInterface
+    private interface RowWriter {
+        void write(ResultSet rs) throws SQLException, IOException;
+    }
+}
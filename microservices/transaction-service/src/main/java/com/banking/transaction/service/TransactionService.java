@@ -1,61 +1,88 @@
 package com.banking.transaction.service;
 
-import com.banking.transaction.dto.TransferRequest;
+import com.banking.common.id.SnowflakeIdGenerator;
+import com.banking.common.idempotency.IdempotencyConflictException;
+import com.banking.common.idempotency.IdempotencyStore;
+import com.banking.common.outbox.OutboxEvent;
+import com.banking.common.outbox.OutboxWriter;
+import com.banking.common.sharding.ShardRouter;
+import com.banking.transaction.dto.AccountResponse;
+import com.banking.transaction.dto.AccountTransferRequest;
+import com.banking.transaction.dto.TransactionHistoryResponse;
 import com.banking.transaction.dto.TransactionResponse;
+import com.banking.transaction.dto.TransferCompletedEvent;
+import com.banking.transaction.dto.TransferRequest;
 import com.banking.transaction.entity.Transaction;
 import com.banking.transaction.repository.TransactionRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import feign.FeignException;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
-import java.security.SecureRandom;
-import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
+import java.util.function.Supplier;
 
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class TransactionService {
     private final TransactionRepository transactionRepository;
-    private final AccountServiceClient accountServiceClient;
-    private final SecureRandom secureRandom = new SecureRandom();
+    private final ResilientAccountClient accountClient;
+    private final ObjectMapper objectMapper;
+    private final SnowflakeIdGenerator idGenerator;
+    private final IdempotencyStore idempotencyStore;
+    private final OutboxWriter outboxWriter;
+    private final TransactionTemplate transactionTemplate;
+    private final ShardRouter shardRouter;
 
-    @Transactional
-    public TransactionResponse processTransfer(TransferRequest request) {
-        try {
-            // Validate accounts exist
-            var sourceAccount = accountServiceClient.getAccount(request.getSourceAccountNumber());
-            var destinationAccount = accountServiceClient.getAccount(request.getDestinationAccountNumber());
+    private static final int MAX_HISTORY_PAGE_SIZE = 100;
+    private static final Comparator<Transaction> HISTORY_ORDER = Comparator
+            .comparing(Transaction::getCreatedAt, Comparator.reverseOrder())
+            .thenComparing(Transaction::getTransactionReference, Comparator.reverseOrder());
 
-            if (!"200".equals(sourceAccount.getResponseCode())) {
-                return buildErrorResponse("404", "Source account not found");
-            }
+    public TransactionResponse processTransfer(TransferRequest request) {
+        return processTransfer(request, null);
+    }
 
-            if (!"200".equals(destinationAccount.getResponseCode())) {
-                return buildErrorResponse("404", "Destination account not found");
-            }
+    public TransactionResponse processTransfer(TransferRequest request, String idempotencyKey) {
+        try {
+            // 409 means account-service is still running the same key, so the outcome is not known yet.
+            return idempotencyStore.execute("transfer", idempotencyKey, request.getSourceAccountNumber(), request,
+                    TransactionResponse.class,
+                    response -> !response.getResponseCode().startsWith("5") && !"409".equals(response.getResponseCode()),
+                    () -> executeTransfer(request, idempotencyKey));
+        } catch (IdempotencyConflictException e) {
+            return buildErrorResponse(e.getResponseCode(), e.getMessage());
+        }
+    }
 
-            // Check sufficient balance
-            if (sourceAccount.getAccountInfo().getAccountBalance().compareTo(request.getAmount()) < 0) {
-                return buildErrorResponse("400", "Insufficient balance");
+    private TransactionResponse executeTransfer(TransferRequest request, String idempotencyKey) {
+        try {
+            // Validate both accounts and move the funds in a single account-service transaction
+            AccountResponse transferResult;
+            try {
+                transferResult = accountClient.transfer(AccountTransferRequest.builder()
+                        .sourceAccountNumber(request.getSourceAccountNumber())
+                        .destinationAccountNumber(request.getDestinationAccountNumber())
+                        .amount(request.getAmount())
+                        .build(), idempotencyKey);
+            } catch (FeignException e) {
+                transferResult = decodeAccountError(e);
+            } catch (CallNotPermittedException | BulkheadFullException e) {
+                log.warn("Account service call rejected: {}", e.getMessage());
+                transferResult = unavailable();
             }
 
-            // Update balances via Account Service
-            try {
-                // Debit source account
-                accountServiceClient.updateBalance(request.getSourceAccountNumber(), 
-                    request.getAmount(), "DEBIT");
-                
-                // Credit destination account
-                accountServiceClient.updateBalance(request.getDestinationAccountNumber(), 
-                    request.getAmount(), "CREDIT");
-            } catch (Exception e) {
-                log.error("Failed to update account balances: {}", e.getMessage());
-                return buildErrorResponse("500", "Failed to process transfer");
+            if (!"200".equals(transferResult.getResponseCode())) {
+                return buildErrorResponse(transferResult.getResponseCode(), transferResult.getResponseMessage());
             }
 
             // Create transaction record
@@ -69,14 +96,20 @@ public class TransactionService {
                     .description(request.getDescription())
                     .build();
 
-            Transaction savedTransaction = transactionRepository.save(transaction);
-            log.info("Transfer completed: {}", savedTransaction.getTransactionReference());
-
-            return TransactionResponse.builder()
-                    .responseCode("200")
-                    .responseMessage("Transfer completed successfully")
-                    .transactionInfo(buildTransactionInfo(savedTransaction))
-                    .build();
+            // The record, its TransferCompleted event and the idempotent response commit together
+            // on the source account's shard.
+            TransactionResponse response = shardRouter.onShardOf(request.getSourceAccountNumber(),
+                    () -> transactionTemplate.execute(status -> {
+                        Transaction saved = transactionRepository.save(transaction);
+                        outboxWriter.appendAll(List.of(transferCompleted(saved)));
+                        return idempotencyStore.complete(TransactionResponse.builder()
+                                .responseCode("200")
+                                .responseMessage("Transfer completed successfully")
+                                .transactionInfo(buildTransactionInfo(saved))
+                                .build());
+                    }));
+            log.info("Transfer completed: {}", response.getTransactionInfo().getTransactionReference());
+            return response;
 
         } catch (Exception e) {
             log.error("Error processing transfer: {}", e.getMessage());
@@ -85,19 +118,129 @@ public class TransactionService {
     }
 
     public List<TransactionResponse.TransactionInfo> getTransactionHistory(String accountNumber, Pageable pageable) {
-        Page<Transaction> transactions = transactionRepository
-                .findBySourceAccountNumberOrDestinationAccountNumberOrderByCreatedAtDesc(
-                        accountNumber, accountNumber, pageable);
+        List<Transaction> transactions;
+        if (shardRouter.isSharded()) {
+            // Every shard may hold part of the page, so each returns everything up to its end.
+            Pageable upToPage = PageRequest.of(0, (int) pageable.getOffset() + pageable.getPageSize());
+            transactions = onEveryShard(() -> transactionRepository
+                    .findBySourceAccountNumberOrDestinationAccountNumberOrderByCreatedAtDesc(
+                            accountNumber, accountNumber, upToPage));
+            transactions = transactions.stream()
+                    .skip(pageable.getOffset())
+                    .limit(pageable.getPageSize())
+                    .toList();
+        } else {
+            transactions = transactionRepository
+                    .findBySourceAccountNumberOrDestinationAccountNumberOrderByCreatedAtDesc(
+                            accountNumber, accountNumber, pageable);
+        }
 
-        return transactions.getContent().stream()
+        return transactions.stream()
                 .map(this::buildTransactionInfo)
                 .toList();
     }
 
-    private String generateTransactionReference() {
-        String timestamp = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMddHHmmss"));
-        int randomNumber = secureRandom.nextInt(10000);
-        return "TXN" + timestamp + String.format(java.util.Locale.ROOT, "%04d", randomNumber);
+    public TransactionHistoryResponse getTransactionHistoryPage(String accountNumber, String cursor, int size) {
+        int pageSize = Math.min(Math.max(size, 1), MAX_HISTORY_PAGE_SIZE);
+        Pageable limit = PageRequest.of(0, pageSize + 1);
+
+        List<Transaction> sent;
+        List<Transaction> received;
+        if (cursor == null || cursor.isBlank()) {
+            sent = shardRouter.onShardOf(accountNumber, () -> transactionRepository.findLatestBySource(accountNumber, limit));
+            received = onEveryShard(() -> transactionRepository.findLatestByDestination(accountNumber, limit));
+        } else {
+            HistoryCursor position;
+            try {
+                position = HistoryCursor.decode(cursor);
+            } catch (IllegalArgumentException e) {
+                return TransactionHistoryResponse.builder()
+                        .responseCode("400")
+                        .responseMessage("Invalid cursor")
+                        .build();
+            }
+            sent = shardRouter.onShardOf(accountNumber, () -> transactionRepository.findBySourceBefore(
+                    accountNumber, position.createdAt(), position.reference(), limit));
+            received = onEveryShard(() -> transactionRepository.findByDestinationBefore(
+                    accountNumber, position.createdAt(), position.reference(), limit));
+        }
+
+        // Both lists are already in (createdAt, transactionReference) descending order; merge them and keep one extra row
+        // to know whether another page exists.
+        List<Transaction> page = new ArrayList<>(pageSize + 1);
+        int i = 0;
+        int j = 0;
+        while (page.size() <= pageSize && (i < sent.size() || j < received.size())) {
+            Transaction next;
+            if (j >= received.size() || (i < sent.size() && HISTORY_ORDER.compare(sent.get(i), received.get(j)) <= 0)) {
+                next = sent.get(i++);
+            } else {
+                next = received.get(j++);
+            }
+            // A transfer between the account and itself shows up in both lists, next to itself.
+            if (page.isEmpty() || !page.get(page.size() - 1).getTransactionReference()
+                    .equals(next.getTransactionReference())) {
+                page.add(next);
+            }
+        }
+
+        String nextCursor = null;
+        if (page.size() > pageSize) {
+            page.remove(pageSize);
+            Transaction last = page.get(pageSize - 1);
+            nextCursor = new HistoryCursor(last.getCreatedAt(), last.getTransactionReference()).encode();
+        }
+
+        return TransactionHistoryResponse.builder()
+                .responseCode("200")
+                .responseMessage("Transaction history retrieved")
+                .transactions(page.stream().map(this::buildTransactionInfo).toList())
+                .nextCursor(nextCursor)
+                .build();
+    }
+
+    // Gathers a query's results from every shard in history order.
+    private List<Transaction> onEveryShard(Supplier<List<Transaction>> query) {
+        if (!shardRouter.isSharded()) {
+            return query.get();
+        }
+        List<Transaction> transactions = new ArrayList<>();
+        shardRouter.forEachShard(shard -> transactions.addAll(query.get()));
+        transactions.sort(HISTORY_ORDER);
+        return transactions;
+    }
+
+    OutboxEvent transferCompleted(Transaction transaction) {
+        return outboxWriter.event(TransferCompletedEvent.AGGREGATE_TYPE, transaction.getSourceAccountNumber(),
+                TransferCompletedEvent.TYPE, new TransferCompletedEvent(transaction.getTransactionReference(),
+                        transaction.getSourceAccountNumber(), transaction.getDestinationAccountNumber(),
+                        transaction.getAmount(), transaction.getDescription()));
+    }
+
+    String generateTransactionReference() {
+        return idGenerator.next("TXN");
+    }
+
+    private AccountResponse decodeAccountError(FeignException e) {
+        if (e.status() == 400 || e.status() == 404 || e.status() == 409 || e.status() == 422) {
+            try {
+                return objectMapper.readValue(e.contentUTF8(), AccountResponse.class);
+            } catch (Exception parseError) {
+                log.warn("Unreadable account-service error response: {}", parseError.getMessage());
+            }
+        }
+        log.error("Failed to update account balances: {}", e.getMessage());
+        AccountResponse failure = new AccountResponse();
+        failure.setResponseCode("500");
+        failure.setResponseMessage("Failed to process transfer");
+        return failure;
+    }
+
+    private AccountResponse unavailable() {
+        AccountResponse failure = new AccountResponse();
+        failure.setResponseCode("503");
+        failure.setResponseMessage("Account service is temporarily unavailable");
+        return failure;
     }
 
     private TransactionResponse buildErrorResponse(String code, String message) {
@@ -107,7 +250,7 @@ public class TransactionService {
                 .build();
     }
 
-    private TransactionResponse.TransactionInfo buildTransactionInfo(Transaction transaction) {
+    TransactionResponse.TransactionInfo buildTransactionInfo(Transaction transaction) {
         return TransactionResponse.TransactionInfo.builder()
                 .transactionReference(transaction.getTransactionReference())
                 .sourceAccountNumber(transaction.getSourceAccountNumber())